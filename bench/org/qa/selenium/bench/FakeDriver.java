@@ -0,0 +1,69 @@
+package org.qa.selenium.bench;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A WebDriver that answers every call at once without a browser, so a benchmark measures only what
+ * the library itself does around each lookup. Every find returns the same displayed, enabled element.
+ * Built from proxies so it works with whichever Selenium 2 version is on the class path.
+ */
+final class FakeDriver
+{
+	private FakeDriver()
+	{
+	}
+
+	static WebDriver create()
+	{
+		final WebElement element = (WebElement) Proxy.newProxyInstance(FakeDriver.class.getClassLoader(),
+				new Class<?>[]{WebElement.class}, new InvocationHandler()
+		{
+			@Override
+			public Object invoke(Object proxy, Method method, Object[] args)
+			{
+				if (method.getName().equals("equals")) return proxy == args[0];
+				return answer(method, proxy, Collections.singletonList(proxy));
+			}
+		});
+		final List<WebElement> elements = Collections.singletonList(element);
+
+		return (WebDriver) Proxy.newProxyInstance(FakeDriver.class.getClassLoader(),
+				new Class<?>[]{WebDriver.class, JavascriptExecutor.class}, new InvocationHandler()
+		{
+			@Override
+			public Object invoke(Object proxy, Method method, Object[] args)
+			{
+				String name = method.getName();
+				if (name.equals("equals")) return proxy == args[0];
+				//Scripts asking for the visible elements are handed the candidates back
+				if (name.startsWith("execute") && args.length > 1 && args[1] instanceof Object[])
+				{
+					Object[] scriptArgs = (Object[]) args[1];
+					if (scriptArgs.length > 0 && scriptArgs[0] instanceof List) return scriptArgs[0];
+				}
+				return answer(method, element, elements);
+			}
+		});
+	}
+
+	private static Object answer(Method method, Object element, List<?> elements)
+	{
+		String name = method.getName();
+		Class<?> type = method.getReturnType();
+		if (name.equals("hashCode")) return System.identityHashCode(element);
+		if (name.equals("getCurrentUrl")) return "http://localhost/bench";
+		if (type == boolean.class) return Boolean.TRUE;
+		if (type == List.class) return elements;
+		if (type == String.class) return "";
+		if (type.isInstance(element) || name.startsWith("execute")) return element;
+		return null;
+	}
+}
@@ -0,0 +1,102 @@
+package org.qa.selenium.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.remote.DesiredCapabilities;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import org.qa.selenium.Commands;
+import org.qa.selenium.Using;
+
+import java.net.URL;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares how long getElement takes for simple XPath locators with the XPath optimizer off, where
+ * the browser evaluates the XPath, and on, where it runs the equivalent CSS selector or id lookup.
+ * Each lookup is a real round trip to a browser holding a generated page of {@link #rows} rows, so
+ * the difference is what the browser saves; the driver overhead is the same on both sides.
+ *
+ * Needs a Selenium server or Grid hub with Chrome, at http://localhost:4444/wd/hub unless given:
+ * <pre>
+ *   java -Dbench.hub=http://host:4444/wd/hub -cp bench.jar org.openjdk.jmh.Main LocatorLatencyBenchmark
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class LocatorLatencyBenchmark
+{
+	@Param({"//div[@id='row-750']/span[@class='cell']", "//*[@id='row-750']", "//input[@name='field-750']",
+			"//div[contains(@class,'odd') and @data-row='751']"})
+	public String xpath;
+
+	@Param({"false", "true"})
+	public boolean optimized;
+
+	@Param({"1000"})
+	public int rows;
+
+	private WebDriver driver;
+	private Commands commands;
+	private Using locator;
+
+	@Setup
+	public void setUp() throws Exception
+	{
+		String hub = System.getProperty("bench.hub", "http://localhost:4444/wd/hub");
+		driver = new RemoteWebDriver(new URL(hub), DesiredCapabilities.chrome());
+		driver.get("about:blank");
+		((JavascriptExecutor) driver).executeScript("document.body.innerHTML = arguments[0];", page(rows));
+
+		Using.setXPathOptimization(optimized);
+		locator = Using.XPath(xpath);
+		commands = new Commands(driver);
+	}
+
+	@TearDown
+	public void tearDown()
+	{
+		Using.setXPathOptimization(false);
+		driver.quit();
+	}
+
+	@Benchmark
+	public WebElement lookup()
+	{
+		return commands.getElement(locator);
+	}
+
+	/**
+	 * Rows of nested elements, so the XPath has a realistic amount of page to search
+	 */
+	private static String page(int rows)
+	{
+		StringBuilder page = new StringBuilder();
+		for (int i=0; i < rows; i++)
+		{
+			page.append("<div id='row-").append(i).append("' class='row ").append((i % 2 == 0) ? "even" : "odd")
+					.append("' data-row='").append(i).append("'>")
+					.append("<span class='label'>Row ").append(i).append("</span>")
+					.append("<span class='cell'>").append(i * 7).append("</span>")
+					.append("<input type='text' name='field-").append(i).append("'>")
+					.append("</div>");
+		}
+		return page.toString();
+	}
+}
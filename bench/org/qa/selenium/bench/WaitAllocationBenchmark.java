@@ -0,0 +1,172 @@
+package org.qa.selenium.bench;
+
+import com.google.common.base.Function;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openqa.selenium.By;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.ui.ExpectedConditions;
+import org.openqa.selenium.support.ui.FluentWait;
+import org.openqa.selenium.support.ui.Wait;
+import org.qa.selenium.internal.AdaptiveWait;
+import org.qa.selenium.internal.Conditions;
+import org.qa.selenium.internal.PageScripts;
+import org.qa.selenium.internal.ResolutionContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares what each kind of wait allocates when its element is found on the first poll, which is
+ * the common case. The *PerLookup benchmarks take the old path: a new {@link FluentWait}, its failure
+ * message and a new condition for every lookup, as Commands.Wait() did before it owned a wait engine.
+ * The *Reused benchmarks reuse one {@link AdaptiveWait} and the preallocated {@link Conditions}, as
+ * Commands does now.
+ *
+ * Run with the GC profiler and compare gc.alloc.rate.norm, the bytes allocated per lookup:
+ * <pre>
+ *   java -cp bench.jar org.openjdk.jmh.Main WaitAllocationBenchmark -prof gc
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class WaitAllocationBenchmark
+{
+	private final By by = By.id("bench");
+	private final String kind = PageScripts.CSS;
+	private final String expression = PageScripts.idSelector("bench");
+
+	/** What the old message was built from on every lookup */
+	private final String lastCommand = "getElement Using ID: 'bench'";
+	private final String currentUrl = "http://localhost/bench";
+
+	private WebDriver driver;
+	private WebElement element;
+	private ResolutionContext resolutions;
+
+	private AdaptiveWait wait;
+	private Conditions.FindElement findElement;
+	private Conditions.FindElements findElements;
+	private Conditions.FindClickable findClickable;
+	private Conditions.Visible visible;
+
+	@Setup
+	public void setUp()
+	{
+		driver = FakeDriver.create();
+		element = driver.findElement(by);
+		resolutions = new ResolutionContext();
+		resolutions.begin("bench");
+
+		wait = newWait().withMessage(new Object()
+		{
+			@Override
+			public String toString()
+			{
+				return lastCommand + " on " + currentUrl;
+			}
+		});
+		findElement = new Conditions.FindElement(resolutions);
+		findElements = new Conditions.FindElements(resolutions);
+		findClickable = new Conditions.FindClickable(resolutions);
+		visible = new Conditions.Visible();
+	}
+
+	@Benchmark
+	public WebElement elementPerLookup()
+	{
+		return perLookupWait().until(new Function<WebDriver, WebElement>()
+		{
+			@Override
+			public WebElement apply(WebDriver d)
+			{
+				resolutions.recordFind();
+				return d.findElement(by);
+			}
+		});
+	}
+
+	@Benchmark
+	public WebElement elementReused()
+	{
+		return wait.until(findElement.target(by));
+	}
+
+	@Benchmark
+	public List<WebElement> elementsPerLookup()
+	{
+		return perLookupWait().until(new Function<WebDriver, List<WebElement>>()
+		{
+			@Override
+			public List<WebElement> apply(WebDriver d)
+			{
+				resolutions.recordFind();
+				return d.findElements(by);
+			}
+		});
+	}
+
+	@Benchmark
+	public List<WebElement> elementsReused()
+	{
+		return wait.until(findElements.target(by));
+	}
+
+	@Benchmark
+	public WebElement clickablePerLookup()
+	{
+		return perLookupWait().until(ExpectedConditions.elementToBeClickable(by));
+	}
+
+	@Benchmark
+	public WebElement clickableReused()
+	{
+		return wait.until(findClickable.target(kind, expression));
+	}
+
+	@Benchmark
+	public WebElement visiblePerLookup()
+	{
+		return perLookupWait().until(ExpectedConditions.visibilityOf(element));
+	}
+
+	@Benchmark
+	public WebElement visibleReused()
+	{
+		return wait.until(visible.target(element));
+	}
+
+	/**
+	 * The wait as Commands.Wait() built it for every lookup, message included
+	 */
+	private Wait<WebDriver> perLookupWait()
+	{
+		return new FluentWait<WebDriver>(driver)
+				.withMessage(lastCommand + " on " + currentUrl)
+				.withTimeout(15, TimeUnit.SECONDS)
+				.pollingEvery(1, TimeUnit.SECONDS)
+				.ignoring(NoSuchElementException.class);
+	}
+
+	private AdaptiveWait newWait()
+	{
+		return new AdaptiveWait(driver)
+				.withTimeout(15, TimeUnit.SECONDS)
+				.pollingEvery(50, 1000, TimeUnit.MILLISECONDS, 2.0)
+				.ignoring(NoSuchElementException.class);
+	}
+}
@@ -0,0 +1,721 @@
+package org.qa.selenium;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+import org.qa.selenium.internal.SerialExecutor;
+
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs a {@link SeleniumCommands} session asynchronously on a shared {@link Executor}. The session
+ * only ever has one command on a pool thread at a time, so a small pool can serve many sessions, and
+ * a session waiting on its browser holds no thread while it has nothing queued.
+ */
+public class AsyncCommands implements AsyncSeleniumCommands
+{
+	private final SeleniumCommands commands;
+	private final SerialExecutor session;
+
+	/** The failure that stops queued commands from running, only touched from the session's turn */
+	private Throwable failure;
+
+	/**
+	 * @param commands The session to run commands on, which nothing else should use meanwhile
+	 * @param executor The pool to run commands on, which may be shared by many sessions
+	 */
+	public AsyncCommands(SeleniumCommands commands, Executor executor)
+	{
+		if (commands == null) throw new NullPointerException("SeleniumCommands must not be Null");
+		this.commands = commands;
+		this.session = new SerialExecutor(executor);
+	}
+
+	public AsyncCommands(WebDriver driver, Executor executor)
+	{
+		this(new Commands(driver), executor);
+	}
+
+	@Override
+	public <T> ListenableFuture<T> submit(final Step<T> step)
+	{
+		if (step == null) throw new NullPointerException("Step must not be Null");
+		final SettableFuture<T> future = SettableFuture.create();
+		session.execute(new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				if (future.isCancelled()) return;
+				if (failure != null)
+				{
+					future.setException(new WebDriverException("Skipped since an earlier command failed", failure));
+					return;
+				}
+				try
+				{
+					future.set(step.run(commands));
+				}
+				catch (Throwable t)
+				{
+					failure = t;
+					future.setException(t);
+					if (t instanceof Error) throw (Error) t;
+				}
+			}
+		});
+		return future;
+	}
+
+	@Override
+	public ListenableFuture<Void> recover()
+	{
+		final SettableFuture<Void> future = SettableFuture.create();
+		session.execute(new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				failure = null;
+				future.set(null);
+			}
+		});
+		return future;
+	}
+
+	@Override
+	public void cancelWaitForTime()
+	{
+		commands.cancelWaitForTime();
+	}
+
+	/**
+	 * @return How many commands are queued and not yet started
+	 */
+	public int getQueueDepth()
+	{
+		return session.getQueueDepth();
+	}
+
+	@Override
+	public ListenableFuture<Void> click(final Using locator)
+	{
+		return submit(new Step<Void>()
+		{
+			@Override
+			public Void run(SeleniumCommands commands)
+			{
+				commands.click(locator);
+				return null;
+			}
+		});
+	}
+
+	@Override
+	public ListenableFuture<Void> click(final Using locator, final String linkName)
+	{
+		return submit(new Step<Void>()
+		{
+			@Override
+			public Void run(SeleniumCommands commands)
+			{
+				commands.click(locator, linkName);
+				return null;
+			}
+		});
+	}
+
+	@Override
+	public ListenableFuture<Void> clickRandom(final Using locator)
+	{
+		return submit(new Step<Void>()
+		{
+			@Override
+			public Void run(SeleniumCommands commands)
+			{
+				commands.clickRandom(locator);
+				return null;
+			}
+		});
+	}
+
+	@Override
+	public ListenableFuture<Void> clickRandom(final Using locator, final String linkName)
+	{
+		return submit(new Step<Void>()
+		{
+			@Override
+			public Void run(SeleniumCommands commands)
+			{
+				commands.clickRandom(locator, linkName);
+				return null;
+			}
+		});
+	}
+
+	@Override
+	public ListenableFuture<Void> checkBox(final boolean selected, final Using locator)
+	{
+		return submit(new Step<Void>()
+		{
+			@Override
+			public Void run(SeleniumCommands commands)
+			{
+				commands.checkBox(selected, locator);
+				return null;
+			}
+		});
+	}
+
+	@Override
+	public ListenableFuture<Void> type(final String input, final Using locator)
+	{
+		return submit(new Step<Void>()
+		{
+			@Override
+			public Void run(SeleniumCommands commands)
+			{
+				commands.type(input, locator);
+				return null;
+			}
+		});
+	}
+
+	@Override
+	public ListenableFuture<Void> type(final String input, final Using locator, final String inputName)
+	{
+		return submit(new Step<Void>()
+		{
+			@Override
+			public Void run(SeleniumCommands commands)
+			{
+				commands.type(input, locator, inputName);
+				return null;
+			}
+		});
+	}
+
+	@Override
+	public ListenableFuture<Void> comboBoxByText(final String visibleText, final Using locator)
+	{
+		return submit(new Step<Void>()
+		{
+			@Override
+			public Void run(SeleniumCommands commands)
+			{
+				commands.comboBoxByText(visibleText, locator);
+				return null;
+			}
+		});
+	}
+
+	@Override
+	public ListenableFuture<Void> comboBoxByText(final String visibleText, final Using locator, final String comboBoxName)
+	{
+		return submit(new Step<Void>()
+		{
+			@Override
+			public Void run(SeleniumCommands commands)
+			{
+				commands.comboBoxByText(visibleText, locator, comboBoxName);
+				return null;
+			}
+		});
+	}
+
+	@Override
+	public ListenableFuture<Void> comboBoxByIndex(final int index, final Using locator)
+	{
+		return submit(new Step<Void>()
+		{
+			@Override
+			public Void run(SeleniumCommands commands)
+			{
+				commands.comboBoxByIndex(index, locator);
+				return null;
+			}
+		});
+	}
+
+	@Override
+	public ListenableFuture<Void> comboBoxRandom(final Using locator)
+	{
+		return submit(new Step<Void>()
+		{
+			@Override
+			public Void run(SeleniumCommands commands)
+			{
+				commands.comboBoxRandom(locator);
+				return null;
+			}
+		});
+	}
+
+	@Override
+	public ListenableFuture<List<WebElement>> comboBoxGetOptions(final Using locator)
+	{
+		return submit(new Step<List<WebElement>>()
+		{
+			@Override
+			public List<WebElement> run(SeleniumCommands commands)
+			{
+				return commands.comboBoxGetOptions(locator);
+			}
+		});
+	}
+
+	@Override
+	public ListenableFuture<ComboBoxOptions> comboBoxGetOptionSnapshot(final Using locator)
+	{
+		return submit(new Step<ComboBoxOptions>()
+		{
+			@Override
+			public ComboBoxOptions run(SeleniumCommands commands)
+			{
+				return commands.comboBoxGetOptionSnapshot(locator);
+			}
+		});
+	}
+
+	@Override
+	public ListenableFuture<String> comboBoxGetDisplayText(final Using locator)
+	{
+		return submit(new Step<String>()
+		{
+			@Override
+			public String run(SeleniumCommands commands)
+			{
+				return commands.comboBoxGetDisplayText(locator);
+			}
+		});
+	}
+
+	@Override
+	public ListenableFuture<Integer> comboBoxGetDisplayIndex(final Using locator)
+	{
+		return submit(new Step<Integer>()
+		{
+			@Override
+			public Integer run(SeleniumCommands commands)
+			{
+				return commands.comboBoxGetDisplayIndex(locator);
+			}
+		});
+	}
+
+	@Override
+	public ListenableFuture<Void> waitForElement(final Using locator)
+	{
+		return submit(new Step<Void>()
+		{
+			@Override
+			public Void run(SeleniumCommands commands)
+			{
+				commands.waitForElement(locator);
+				return null;
+			}
+		});
+	}
+
+	@Override
+	public ListenableFuture<Void> waitForElement(final Using locator, final String elementName)
+	{
+		return submit(new Step<Void>()
+		{
+			@Override
+			public Void run(SeleniumCommands commands)
+			{
+				commands.waitForElement(locator, elementName);
+				return null;
+			}
+		});
+	}
+
+	@Override
+	public ListenableFuture<Void> waitForAbsence(final Using locator)
+	{
+		return submit(new Step<Void>()
+		{
+			@Override
+			public Void run(SeleniumCommands commands)
+			{
+				commands.waitForAbsence(locator);
+				return null;
+			}
+		});
+	}
+
+	@Override
+	public ListenableFuture<Void> waitForInvisibility(final Using locator)
+	{
+		return submit(new Step<Void>()
+		{
+			@Override
+			public Void run(SeleniumCommands commands)
+			{
+				commands.waitForInvisibility(locator);
+				return null;
+			}
+		});
+	}
+
+	@Override
+	public ListenableFuture<Using> waitForAny(Using... locators)
+	{
+		//Copied, since the caller may reuse its array before the command runs
+		final Using[] copy = (locators == null) ? null : locators.clone();
+		return submit(new Step<Using>()
+		{
+			@Override
+			public Using run(SeleniumCommands commands)
+			{
+				return commands.waitForAny(copy);
+			}
+		});
+	}
+
+	@Override
+	public ListenableFuture<Void> waitForAll(Using... locators)
+	{
+		//Copied, since the caller may reuse its array before the command runs
+		final Using[] copy = (locators == null) ? null : locators.clone();
+		return submit(new Step<Void>()
+		{
+			@Override
+			public Void run(SeleniumCommands commands)
+			{
+				commands.waitForAll(copy);
+				return null;
+			}
+		});
+	}
+
+	@Override
+	public ListenableFuture<Void> waitUntil(final Condition condition)
+	{
+		return submit(new Step<Void>()
+		{
+			@Override
+			public Void run(SeleniumCommands commands)
+			{
+				commands.waitUntil(condition);
+				return null;
+			}
+		});
+	}
+
+	@Override
+	public ListenableFuture<BatchReport> runBatch(final Batch batch)
+	{
+		return submit(new Step<BatchReport>()
+		{
+			@Override
+			public BatchReport run(SeleniumCommands commands)
+			{
+				return commands.runBatch(batch);
+			}
+		});
+	}
+
+	@Override
+	public ListenableFuture<WebElement> getElement(final Using locator)
+	{
+		return submit(new Step<WebElement>()
+		{
+			@Override
+			public WebElement run(SeleniumCommands commands)
+			{
+				return commands.getElement(locator);
+			}
+		});
+	}
+
+	@Override
+	public ListenableFuture<List<WebElement>> getElements(final Using locator)
+	{
+		return submit(new Step<List<WebElement>>()
+		{
+			@Override
+			public List<WebElement> run(SeleniumCommands commands)
+			{
+				return commands.getElements(locator);
+			}
+		});
+	}
+
+	@Override
+	public ListenableFuture<Integer> getElementCount(final Using locator)
+	{
+		return submit(new Step<Integer>()
+		{
+			@Override
+			public Integer run(SeleniumCommands commands)
+			{
+				return commands.getElementCount(locator);
+			}
+		});
+	}
+
+	@Override
+	public ListenableFuture<Boolean> isPresent(final Using locator)
+	{
+		return submit(new Step<Boolean>()
+		{
+			@Override
+			public Boolean run(SeleniumCommands commands)
+			{
+				return commands.isPresent(locator);
+			}
+		});
+	}
+
+	@Override
+	public ListenableFuture<WebElement> tryGetElement(final Using locator, final long time, final TimeUnit unit)
+	{
+		return submit(new Step<WebElement>()
+		{
+			@Override
+			public WebElement run(SeleniumCommands commands)
+			{
+				return commands.tryGetElement(locator, time, unit);
+			}
+		});
+	}
+
+	@Override
+	public ListenableFuture<String> getElementAttribute(final String attribute, final Using locator)
+	{
+		return submit(new Step<String>()
+		{
+			@Override
+			public String run(SeleniumCommands commands)
+			{
+				return commands.getElementAttribute(attribute, locator);
+			}
+		});
+	}
+
+	@Override
+	public ListenableFuture<String> getText(final Using locator)
+	{
+		return submit(new Step<String>()
+		{
+			@Override
+			public String run(SeleniumCommands commands)
+			{
+				return commands.getText(locator);
+			}
+		});
+	}
+
+	@Override
+	public ListenableFuture<Void> enterWebFrame(final Using locator)
+	{
+		return submit(new Step<Void>()
+		{
+			@Override
+			public Void run(SeleniumCommands commands)
+			{
+				commands.enterWebFrame(locator);
+				return null;
+			}
+		});
+	}
+
+	@Override
+	public ListenableFuture<Void> setFluentWaitTime(final Integer waitTime, final TimeUnit waitUnit, final Integer pollingTime, final TimeUnit pollingUnit)
+	{
+		return submit(new Step<Void>()
+		{
+			@Override
+			public Void run(SeleniumCommands commands)
+			{
+				commands.setFluentWaitTime(waitTime, waitUnit, pollingTime, pollingUnit);
+				return null;
+			}
+		});
+	}
+
+	@Override
+	public ListenableFuture<Void> setPollingBackoff(final long initialPollingTime, final TimeUnit pollingUnit, final double multiplier)
+	{
+		return submit(new Step<Void>()
+		{
+			@Override
+			public Void run(SeleniumCommands commands)
+			{
+				commands.setPollingBackoff(initialPollingTime, pollingUnit, multiplier);
+				return null;
+			}
+		});
+	}
+
+	@Override
+	public ListenableFuture<Void> setWaitStrategy(final WaitStrategy strategy)
+	{
+		return submit(new Step<Void>()
+		{
+			@Override
+			public Void run(SeleniumCommands commands)
+			{
+				commands.setWaitStrategy(strategy);
+				return null;
+			}
+		});
+	}
+
+	@Override
+	public ListenableFuture<Void> waitForTime(final long time, final TimeUnit unit)
+	{
+		return submit(new Step<Void>()
+		{
+			@Override
+			public Void run(SeleniumCommands commands)
+			{
+				commands.waitForTime(time, unit);
+				return null;
+			}
+		});
+	}
+
+	@Override
+	public ListenableFuture<Void> open(final String url)
+	{
+		return submit(new Step<Void>()
+		{
+			@Override
+			public Void run(SeleniumCommands commands)
+			{
+				commands.open(url);
+				return null;
+			}
+		});
+	}
+
+	@Override
+	public ListenableFuture<Void> close()
+	{
+		//Queued directly so the browser is closed even after a command has failed
+		final SettableFuture<Void> future = SettableFuture.create();
+		session.execute(new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				if (future.isCancelled()) return;
+				try
+				{
+					commands.close();
+					future.set(null);
+				}
+				catch (Throwable t)
+				{
+					future.setException(t);
+					if (t instanceof Error) throw (Error) t;
+				}
+			}
+		});
+		return future;
+	}
+
+	@Override
+	public ListenableFuture<Void> popAllWebFrames()
+	{
+		return submit(new Step<Void>()
+		{
+			@Override
+			public Void run(SeleniumCommands commands)
+			{
+				commands.popAllWebFrames();
+				return null;
+			}
+		});
+	}
+
+	@Override
+	public ListenableFuture<Void> popCurrentWebFrame()
+	{
+		return submit(new Step<Void>()
+		{
+			@Override
+			public Void run(SeleniumCommands commands)
+			{
+				commands.popCurrentWebFrame();
+				return null;
+			}
+		});
+	}
+
+	@Override
+	public ListenableFuture<String> getElementXPath(final WebElement element)
+	{
+		return submit(new Step<String>()
+		{
+			@Override
+			public String run(SeleniumCommands commands)
+			{
+				return commands.getElementXPath(element);
+			}
+		});
+	}
+
+	@Override
+	public ListenableFuture<Void> openNewWindow(final String url)
+	{
+		return submit(new Step<Void>()
+		{
+			@Override
+			public Void run(SeleniumCommands commands)
+			{
+				commands.openNewWindow(url);
+				return null;
+			}
+		});
+	}
+
+	@Override
+	public ListenableFuture<Void> switchToWindow()
+	{
+		return submit(new Step<Void>()
+		{
+			@Override
+			public Void run(SeleniumCommands commands)
+			{
+				commands.switchToWindow();
+				return null;
+			}
+		});
+	}
+
+	@Override
+	public ListenableFuture<Void> switchToParent()
+	{
+		return submit(new Step<Void>()
+		{
+			@Override
+			public Void run(SeleniumCommands commands)
+			{
+				commands.switchToParent();
+				return null;
+			}
+		});
+	}
+
+	@Override
+	public ListenableFuture<Void> closeWindow()
+	{
+		return submit(new Step<Void>()
+		{
+			@Override
+			public Void run(SeleniumCommands commands)
+			{
+				commands.closeWindow();
+				return null;
+			}
+		});
+	}
+}
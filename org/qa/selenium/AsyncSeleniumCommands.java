@@ -0,0 +1,92 @@
+package org.qa.selenium;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import org.openqa.selenium.WebElement;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link SeleniumCommands} for one session that return at once. Every command is queued and returns a
+ * {@link ListenableFuture} of its result, so one thread can drive many sessions and do its own work,
+ * such as assertions, logging or encoding screenshots, while the browsers respond. Chain further work
+ * on a result with Futures.transform or a listener rather than blocking on get().
+ *
+ * Commands on a session run strictly in the order they were called, never overlapping. Once one
+ * fails, every command queued after it fails without running until {@link #recover()} is called, so a
+ * scenario never carries on from a state it did not expect.
+ */
+public interface AsyncSeleniumCommands
+{
+	/**
+	 * Any work to run against the session in its turn, for calls not covered below.
+	 */
+	public interface Step<T>
+	{
+		T run(SeleniumCommands commands) throws Exception;
+	}
+
+	public <T> ListenableFuture<T> submit(Step<T> step);
+
+	/**
+	 * Lets commands queued after this run again after an earlier command failed.
+	 *
+	 * @return Completes once the commands before it have finished
+	 */
+	public ListenableFuture<Void> recover();
+
+	/**
+	 * Ends a pause started by waitForTime straight away, without waiting its turn.
+	 */
+	public void cancelWaitForTime();
+
+	/**
+	 * Closes the browser in its turn, even after an earlier command has failed, so a failed scenario
+	 * can still clean up without calling {@link #recover()} first.
+	 */
+	public ListenableFuture<Void> close();
+
+	public ListenableFuture<Void> click(Using locator);
+	public ListenableFuture<Void> click(Using locator, String linkName);
+	public ListenableFuture<Void> clickRandom(Using locator);
+	public ListenableFuture<Void> clickRandom(Using locator, String linkName);
+	public ListenableFuture<Void> checkBox(boolean selected, Using locator);
+	public ListenableFuture<Void> type(String input, Using locator);
+	public ListenableFuture<Void> type(String input, Using locator, String inputName);
+	public ListenableFuture<Void> comboBoxByText(String visibleText, Using locator);
+	public ListenableFuture<Void> comboBoxByText(String visibleText, Using locator, String comboBoxName);
+	public ListenableFuture<Void> comboBoxByIndex(int index, Using locator);
+	public ListenableFuture<Void> comboBoxRandom(Using locator);
+	public ListenableFuture<List<WebElement>> comboBoxGetOptions(Using locator);
+	public ListenableFuture<ComboBoxOptions> comboBoxGetOptionSnapshot(Using locator);
+	public ListenableFuture<String> comboBoxGetDisplayText(Using locator);
+	public ListenableFuture<Integer> comboBoxGetDisplayIndex(Using locator);
+	public ListenableFuture<Void> waitForElement(Using locator);
+	public ListenableFuture<Void> waitForElement(Using locator, String elementName);
+	public ListenableFuture<Void> waitForAbsence(Using locator);
+	public ListenableFuture<Void> waitForInvisibility(Using locator);
+	public ListenableFuture<Using> waitForAny(Using... locators);
+	public ListenableFuture<Void> waitForAll(Using... locators);
+	public ListenableFuture<Void> waitUntil(Condition condition);
+	public ListenableFuture<BatchReport> runBatch(Batch batch);
+	public ListenableFuture<WebElement> getElement(Using locator);
+	public ListenableFuture<List<WebElement>> getElements(Using locator);
+	public ListenableFuture<Integer> getElementCount(Using locator);
+	public ListenableFuture<Boolean> isPresent(Using locator);
+	public ListenableFuture<WebElement> tryGetElement(Using locator, long time, TimeUnit unit);
+	public ListenableFuture<String> getElementAttribute(String attribute, Using locator);
+	public ListenableFuture<String> getText(Using locator);
+	public ListenableFuture<Void> enterWebFrame(Using locator);
+	public ListenableFuture<Void> setFluentWaitTime(Integer waitTime, TimeUnit waitUnit, Integer pollingTime, TimeUnit pollingUnit);
+	public ListenableFuture<Void> setPollingBackoff(long initialPollingTime, TimeUnit pollingUnit, double multiplier);
+	public ListenableFuture<Void> setWaitStrategy(WaitStrategy strategy);
+	public ListenableFuture<Void> waitForTime(long time, TimeUnit unit);
+	public ListenableFuture<Void> open(String url);
+	public ListenableFuture<Void> popAllWebFrames();
+	public ListenableFuture<Void> popCurrentWebFrame();
+	public ListenableFuture<String> getElementXPath(WebElement element);
+	public ListenableFuture<Void> openNewWindow(String url);
+	public ListenableFuture<Void> switchToWindow();
+	public ListenableFuture<Void> switchToParent();
+	public ListenableFuture<Void> closeWindow();
+}
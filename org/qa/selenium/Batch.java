@@ -0,0 +1,156 @@
+package org.qa.selenium;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Collects type, checkBox and comboBoxByText actions for {@link SeleniumCommands#runBatch(Batch)},
+ * which does them in order with a single in page script rather than several round trips each.
+ *
+ * <pre>
+ *   commands.runBatch(new Batch()
+ *           .type("Jane", Using.ID("first-name"))
+ *           .checkBox(true, Using.Name("terms"))
+ *           .comboBoxByText("Canada", Using.ID("country")));
+ * </pre>
+ *
+ * The script sets values directly and fires the input and change events typing or selecting would,
+ * but no key events. An action it cannot do, for example because its element has not appeared yet
+ * or is not a plain text field, is done natively the way its command would do it, waiting for the
+ * element as usual, and the script then carries on from the next action.
+ */
+public final class Batch
+{
+	private final List<Step> steps = new ArrayList<Step>();
+
+	/**
+	 * Types into the first visible text field at the locator, then leaves it.
+	 */
+	public Batch type(String input, Using locator)
+	{
+		return type(input, locator, null);
+	}
+
+	/**
+	 * @param inputName The name of the field, for the report and logging
+	 */
+	public Batch type(final String input, final Using locator, final String inputName)
+	{
+		if (input == null) throw new NullPointerException("String input must not be Null");
+		return add(new Step("type", input, locator)
+		{
+			@Override
+			public String toString()
+			{
+				return (inputName == null)
+						? "type '" + input + "' Using " + locator
+						: "type '" + input + "' into " + inputName + " Using " + locator;
+			}
+		});
+	}
+
+	/**
+	 * Clicks the element at the locator if its checked state is not already the one given.
+	 */
+	public Batch checkBox(final boolean selected, final Using locator)
+	{
+		return add(new Step("check", selected, locator)
+		{
+			@Override
+			public String toString()
+			{
+				return "checkBox '" + (selected ? "check" : "un-check") + "' Using " + locator;
+			}
+		});
+	}
+
+	/**
+	 * Selects the option with the visible text from the first visible select at the locator.
+	 */
+	public Batch comboBoxByText(String visibleText, Using locator)
+	{
+		return comboBoxByText(visibleText, locator, null);
+	}
+
+	/**
+	 * @param comboBoxName The name of the select, for the report and logging
+	 */
+	public Batch comboBoxByText(final String visibleText, final Using locator, final String comboBoxName)
+	{
+		if (visibleText == null) throw new NullPointerException("String visibleText must not be Null");
+		return add(new Step("select", visibleText, locator)
+		{
+			@Override
+			public String toString()
+			{
+				return (comboBoxName == null)
+						? "Select '" + visibleText + "' Using " + locator
+						: "Select '" + visibleText + "' from '" + comboBoxName + "' Using " + locator;
+			}
+		});
+	}
+
+	/**
+	 * @return How many actions the batch holds
+	 */
+	public int size()
+	{
+		return steps.size();
+	}
+
+	/**
+	 * @return The actions in the order they were added
+	 */
+	List<Step> steps()
+	{
+		return Collections.unmodifiableList(new ArrayList<Step>(steps));
+	}
+
+	@Override
+	public String toString()
+	{
+		return "Batch of " + steps.size() + " actions";
+	}
+
+	private Batch add(Step step)
+	{
+		steps.add(step);
+		return this;
+	}
+
+	/**
+	 * One action of the batch, described to the script by its locator, the action's name in
+	 * {@link org.qa.selenium.internal.PageScripts#BATCH} and its value. Each action describes itself
+	 * only when asked, since describing a WebElement locator calls the driver.
+	 */
+	static class Step
+	{
+		private final String action;
+		private final Object value;
+		private final Using locator;
+
+		private Step(String action, Object value, Using locator)
+		{
+			if (locator == null) throw new NullPointerException("Using locator must not be Null");
+			this.action = action;
+			this.value = value;
+			this.locator = locator;
+		}
+
+		String action()
+		{
+			return action;
+		}
+
+		Object value()
+		{
+			return value;
+		}
+
+		Using locator()
+		{
+			return locator;
+		}
+	}
+}
@@ -0,0 +1,23 @@
+package org.qa.selenium;
+
+import org.openqa.selenium.WebDriverException;
+
+/**
+ * Thrown by {@link SeleniumCommands#runBatch(Batch)} once the whole batch has run if any of its
+ * actions failed. The {@link BatchReport} says which, and why; the first failure is the cause.
+ */
+public class BatchException extends WebDriverException
+{
+	private final BatchReport report;
+
+	public BatchException(BatchReport report)
+	{
+		super(report.toString(), report.getFailures().isEmpty() ? null : report.getFailures().get(0).getError());
+		this.report = report;
+	}
+
+	public BatchReport getReport()
+	{
+		return report;
+	}
+}
@@ -0,0 +1,164 @@
+package org.qa.selenium;
+
+import org.openqa.selenium.WebDriverException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * What {@link SeleniumCommands#runBatch(Batch)} did with each action of a {@link Batch}: whether the
+ * script did it, or the native command did it, or it failed, and why the script could not.
+ */
+public final class BatchReport
+{
+	public enum Outcome
+	{
+		/** Done by the in page script */
+		SCRIPTED,
+		/** Done by the native command after the script could not */
+		NATIVE,
+		/** The native command failed */
+		FAILED
+	}
+
+	public static final class StepResult
+	{
+		private final Batch.Step step;
+		private final Outcome outcome;
+		private final String reason;
+		private final WebDriverException error;
+
+		/** The step's description once rendered */
+		private volatile String description;
+
+		StepResult(Batch.Step step, Outcome outcome, String reason, WebDriverException error)
+		{
+			this.step = step;
+			this.outcome = outcome;
+			this.reason = reason;
+			this.error = error;
+		}
+
+		/**
+		 * Rendered on first call, since describing a WebElement locator calls the driver.
+		 */
+		public String getDescription()
+		{
+			String rendered = description;
+			if (rendered == null)
+			{
+				try
+				{
+					rendered = step.toString();
+				}
+				catch (RuntimeException e)
+				{
+					//The element may have gone stale since the batch ran
+					return step.action() + " (unable to describe: " + e.getClass().getSimpleName() + ")";
+				}
+				description = rendered;
+			}
+			return rendered;
+		}
+
+		public Outcome getOutcome()
+		{
+			return outcome;
+		}
+
+		/**
+		 * @return Why the script could not do the action, null when it did
+		 */
+		public String getReason()
+		{
+			return reason;
+		}
+
+		/**
+		 * @return What the native command threw, null unless the action failed
+		 */
+		public WebDriverException getError()
+		{
+			return error;
+		}
+
+		@Override
+		public String toString()
+		{
+			switch (outcome)
+			{
+				case SCRIPTED: return getDescription() + ": scripted";
+				case NATIVE: return getDescription() + ": native, since " + reason;
+				default: return getDescription() + ": failed, " + error.getMessage();
+			}
+		}
+	}
+
+	private final List<StepResult> results;
+	private final int scriptCalls;
+
+	BatchReport(List<StepResult> results, int scriptCalls)
+	{
+		this.results = Collections.unmodifiableList(new ArrayList<StepResult>(results));
+		this.scriptCalls = scriptCalls;
+	}
+
+	/**
+	 * @return The result of every action, in the order of the batch
+	 */
+	public List<StepResult> getResults()
+	{
+		return results;
+	}
+
+	public List<StepResult> getFailures()
+	{
+		List<StepResult> failures = new ArrayList<StepResult>();
+		for (StepResult result : results)
+		{
+			if (result.getOutcome() == Outcome.FAILED) failures.add(result);
+		}
+		return failures;
+	}
+
+	public boolean hasFailures()
+	{
+		return count(Outcome.FAILED) > 0;
+	}
+
+	/**
+	 * @return How many actions ended with the outcome
+	 */
+	public int count(Outcome outcome)
+	{
+		int count = 0;
+		for (StepResult result : results)
+		{
+			if (result.getOutcome() == outcome) count++;
+		}
+		return count;
+	}
+
+	/**
+	 * @return How many times the script was sent to the browser, once unless actions fell back
+	 */
+	public int getScriptCalls()
+	{
+		return scriptCalls;
+	}
+
+	@Override
+	public String toString()
+	{
+		StringBuilder report = new StringBuilder("BatchReport: ")
+				.append(count(Outcome.SCRIPTED)).append(" scripted in ").append(scriptCalls).append(" script calls, ")
+				.append(count(Outcome.NATIVE)).append(" native, ")
+				.append(count(Outcome.FAILED)).append(" failed");
+		for (StepResult result : results)
+		{
+			if (result.getOutcome() != Outcome.SCRIPTED) report.append("\n  ").append(result);
+		}
+		return report.toString();
+	}
+}
@@ -0,0 +1,202 @@
+package org.qa.selenium;
+
+import java.util.AbstractList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * An immutable snapshot of every option in a select element, read in a single script call. The
+ * options are held as parallel arrays rather than one {@link org.openqa.selenium.WebElement} per
+ * option, so reading them costs nothing further once the snapshot is taken. {@link Option} records
+ * are built on demand.
+ */
+public final class ComboBoxOptions
+{
+	private final String[] values;
+	private final String[] texts;
+	private final BitSet selected;
+	private final BitSet disabled;
+
+	ComboBoxOptions(String[] values, String[] texts, BitSet selected, BitSet disabled)
+	{
+		this.values = values;
+		this.texts = texts;
+		this.selected = selected;
+		this.disabled = disabled;
+	}
+
+	public int size()
+	{
+		return texts.length;
+	}
+
+	public String getValue(int index)
+	{
+		return values[index];
+	}
+
+	public String getText(int index)
+	{
+		return texts[index];
+	}
+
+	public boolean isSelected(int index)
+	{
+		checkIndex(index);
+		return selected.get(index);
+	}
+
+	public boolean isDisabled(int index)
+	{
+		checkIndex(index);
+		return disabled.get(index);
+	}
+
+	/**
+	 * @return The index of the first selected option, or -1 if none is selected
+	 */
+	public int getSelectedIndex()
+	{
+		return selected.nextSetBit(0);
+	}
+
+	/**
+	 * @param text The visible text to look for
+	 * @return The index of the first option with that visible text, or -1 if there is none
+	 */
+	public int indexOfText(String text)
+	{
+		for (int i=0; i < texts.length; i++)
+		{
+			if (texts[i].equals(text)) return i;
+		}
+		return -1;
+	}
+
+	/**
+	 * @param value The value attribute to look for
+	 * @return The index of the first option with that value, or -1 if there is none
+	 */
+	public int indexOfValue(String value)
+	{
+		for (int i=0; i < values.length; i++)
+		{
+			if (values[i].equals(value)) return i;
+		}
+		return -1;
+	}
+
+	public Option get(int index)
+	{
+		checkIndex(index);
+		return new Option(index, values[index], texts[index], selected.get(index), disabled.get(index));
+	}
+
+	/**
+	 * @return A read only view of the options as {@link Option} records
+	 */
+	public List<Option> asList()
+	{
+		return new AbstractList<Option>()
+		{
+			@Override
+			public Option get(int index)
+			{
+				return ComboBoxOptions.this.get(index);
+			}
+
+			@Override
+			public int size()
+			{
+				return ComboBoxOptions.this.size();
+			}
+		};
+	}
+
+	@Override
+	public String toString()
+	{
+		return asList().toString();
+	}
+
+	private void checkIndex(int index)
+	{
+		if (index < 0 || index >= texts.length)
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + texts.length);
+	}
+
+	/**
+	 * A single option of the snapshot.
+	 */
+	public static final class Option
+	{
+		private final int index;
+		private final String value;
+		private final String text;
+		private final boolean selected;
+		private final boolean disabled;
+
+		Option(int index, String value, String text, boolean selected, boolean disabled)
+		{
+			this.index = index;
+			this.value = value;
+			this.text = text;
+			this.selected = selected;
+			this.disabled = disabled;
+		}
+
+		public int getIndex()
+		{
+			return index;
+		}
+
+		public String getValue()
+		{
+			return value;
+		}
+
+		public String getText()
+		{
+			return text;
+		}
+
+		public boolean isSelected()
+		{
+			return selected;
+		}
+
+		public boolean isDisabled()
+		{
+			return disabled;
+		}
+
+		@Override
+		public boolean equals(Object o)
+		{
+			if (this == o) return true;
+			if (o == null || getClass() != o.getClass()) return false;
+			Option option = (Option) o;
+
+			return index == option.index && selected == option.selected && disabled == option.disabled &&
+					value.equals(option.value) && text.equals(option.text);
+		}
+
+		@Override
+		public int hashCode()
+		{
+			int result = index;
+			result = 31 * result + value.hashCode();
+			result = 31 * result + text.hashCode();
+			result = 31 * result + (selected ? 1 : 0);
+			result = 31 * result + (disabled ? 1 : 0);
+			return result;
+		}
+
+		@Override
+		public String toString()
+		{
+			return "Option " + index + ": '" + text + "' value='" + value + "'" +
+					(selected ? " selected" : "") + (disabled ? " disabled" : "");
+		}
+	}
+}
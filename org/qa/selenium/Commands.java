@@ -7,23 +7,34 @@ import org.apache.log4j.Logger;
 import org.openqa.selenium.*;
 import org.openqa.selenium.NoSuchElementException;
 import org.openqa.selenium.interactions.Actions;
-import org.openqa.selenium.support.ui.ExpectedConditions;
-import org.openqa.selenium.support.ui.FluentWait;
 import org.openqa.selenium.support.ui.Select;
 import org.openqa.selenium.support.ui.Wait;
-import org.qa.selenium.internal.ByCSS;
-import org.qa.selenium.internal.ByID;
-import org.qa.selenium.internal.ByWebElement;
-import org.qa.selenium.internal.ByXPath;
+import org.qa.selenium.internal.AdaptiveWait;
+import org.qa.selenium.internal.CommandDescriptor;
+import org.qa.selenium.internal.Conditions;
+import org.qa.selenium.internal.ElementCache;
+import org.qa.selenium.internal.PageScripts;
+import org.qa.selenium.internal.Pause;
+import org.qa.selenium.internal.ResolutionContext;
+import org.qa.selenium.internal.SessionGuard;
 
 import java.util.*;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Created By: Justin Graham
  * Date: 1/29/13
+ *
+ * Each Commands object drives one browser session and runs one command at a time. The session may be
+ * handed from thread to thread between commands, for example by an executor, without any locking by
+ * the caller; a thread that starts a command while another thread is still in one gets a
+ * {@link ConcurrentSessionException}. Run sessions in parallel with one Commands per session.
+ * {@link #getContext()} and {@link #cancelWaitForTime()} may be called from any thread at any time.
+ * The counters, such as {@link #getCommandCount(String)}, follow the same rule as commands, so read
+ * them from the session's thread or between commands.
  */
-public class Commands implements SeleniumCommands, ByXPath, ByCSS, ByID, ByWebElement
+public class Commands implements SeleniumCommands
 {
 	/*===================================================================
 	 *
@@ -37,25 +48,86 @@ public class Commands implements SeleniumCommands, ByXPath, ByCSS, ByID, ByWebEl
 	/** Our log4j logger */
 	private Logger logger = LogManager.getLogger(getClass().getSimpleName());
 
-	/** Initial values for FluentWait's timeout and polling in Seconds */
-	private long waitForElement = 15;
-	private long pollingForElement = 1;
+	/** Initial values for the wait's timeout and widest polling interval in Milliseconds */
+	private long waitForElement = TimeUnit.SECONDS.toMillis(15);
+	private long pollingForElement = TimeUnit.SECONDS.toMillis(1);
 
-	/** Holds the toString of the last command we called allowing us to throw which command we hit an error on */
-	private String lastCommand;
+	/** The first polling interval in Milliseconds and how much it grows after each unsuccessful poll */
+	private long initialPollingForElement = 50;
+	private double pollingMultiplier = 2.0;
 
-	/** Hold the url of the page we last called a command on */
-	private String currentUrl;
+	/** How we wait for elements to appear, and the script timeout last set on the driver for it */
+	private WaitStrategy waitStrategy = WaitStrategy.POLLING;
+	private long scriptTimeout = -1;
 
-	/** Maintains the order in which we entered nested WebFrames */
-	private LinkedList<Using> webFrames = new LinkedList<Using>();
+	/**
+	 * Where the session is: the last command we called, allowing us to throw which command we hit an
+	 * error on, the url we are on, the WebFrames we entered in order and the handles of any popup.
+	 * Replaced, never changed, so other threads may read it at any time.
+	 */
+	private final AtomicReference<SessionContext> context = new AtomicReference<SessionContext>(SessionContext.EMPTY);
+
+	/** Lets one thread at a time run commands */
+	private final SessionGuard guard = new SessionGuard();
+
+	/**
+	 * When true the url is recorded as we navigate rather than asked of the driver at the start of
+	 * every command, and only looked up when a wait times out
+	 */
+	private boolean lazyUrlTracking = true;
+
+	/** How many getCurrentUrl calls lazy url tracking has saved */
+	private long savedUrlLookups;
+
+	/** Elements resolved during the current command, and how many remote finds each command makes */
+	private final ResolutionContext resolutions = new ResolutionContext();
+
+	/** Optional cache of elements by locator for the current window and frame */
+	private final ElementCache elementCache = new ElementCache();
 
 	private WindowBuilder windowBuilder;
 
-	/** Window handles in the event of a popup */
-	private String parentHandle;
-	private String popUpHandle;
+	/** The scenario's time budget, if it has one */
+	private Deadline deadline;
+
+	/** The pause currently running in {@link #waitForTime(long, TimeUnit)} so other threads can cancel it */
+	private volatile Pause currentPause;
+
+	/** Renders the failure message of a wait, only ever called when a wait times out */
+	private final Object timeoutMessage = new Object()
+	{
+		@Override
+		public String toString()
+		{
+			return context.get().lastCommandDescription() + " on " + describeCurrentUrl();
+		}
+	};
+
+	/** Our wait and the conditions it checks, created once and reused by every lookup */
+	private final AdaptiveWait wait;
 
+	/** Runs our wait for no longer than the time left in the deadline, if there is one */
+	private final Wait<WebDriver> deadlineWait = new Wait<WebDriver>()
+	{
+		@Override
+		public <T> T until(Function<? super WebDriver, T> isTrue)
+		{
+			long timeout = waitTimeout(waitForElement);
+			try
+			{
+				return wait.until(isTrue, timeout, TimeUnit.MILLISECONDS);
+			}
+			catch (TimeoutException e)
+			{
+				throw (timeout < waitForElement) ? deadlineExceeded(e) : e;
+			}
+		}
+	};
+	private final Conditions.FindElement findElement = new Conditions.FindElement(resolutions);
+	private final Conditions.FindElements findElements = new Conditions.FindElements(resolutions);
+	private final Conditions.FindClickable findClickable = new Conditions.FindClickable(resolutions);
+	private final Conditions.PageCheck pageCheck = new Conditions.PageCheck(resolutions);
+	private final Conditions.Visible visible = new Conditions.Visible();
 
 	/*===================================================================
 	 *
@@ -66,6 +138,11 @@ public class Commands implements SeleniumCommands, ByXPath, ByCSS, ByID, ByWebEl
 	public Commands(WebDriver driver)
 	{
 		this.driver = driver;
+		this.wait = new AdaptiveWait(driver)
+				.withMessage(timeoutMessage)
+				.ignoring(NoSuchElementException.class)
+				.propagating(InvalidSelectorException.class);
+		configureWait();
 	}
 
 	/*===================================================================
@@ -77,99 +154,215 @@ public class Commands implements SeleniumCommands, ByXPath, ByCSS, ByID, ByWebEl
 	@Override
 	public SeleniumCommands click(Using locator)
 	{
-		setCurrentUrl();
-		setLastCommand("click Using " + locator);
-		locator.Click(this);
-		return this;
+		guard.enter("click");
+		try
+		{
+			setCurrentUrl();
+			setLastCommand("click", "click Using %s", locator);
+			fluentWaitForClickable(locator).click();
+			return this;
+		}
+		finally
+		{
+			guard.exit();
+		}
 	}
 
 	@Override
 	public SeleniumCommands click(Using locator, String linkName)
 	{
-		setCurrentUrl();
-		setLastCommand("click '" + linkName + "' Using " + locator);
-		locator.Click(this);
-		return this;
+		guard.enter("click");
+		try
+		{
+			setCurrentUrl();
+			setLastCommand("click", "click '%s' Using %s", linkName, locator);
+			fluentWaitForClickable(locator).click();
+			return this;
+		}
+		finally
+		{
+			guard.exit();
+		}
 	}
 
 	@Override
 	public SeleniumCommands clickRandom(Using locator, String linkName)
 	{
-		setCurrentUrl();
-		setLastCommand("click Random '" + linkName + "' Using " + locator);
-		locator.ClickRandom(this);
-		return this;
+		guard.enter("clickRandom");
+		try
+		{
+			setCurrentUrl();
+			setLastCommand("clickRandom", "click Random '%s' Using %s", linkName, locator);
+			return clickRandomElement(locator);
+		}
+		finally
+		{
+			guard.exit();
+		}
 	}
 
 	@Override
 	public SeleniumCommands clickRandom(Using locator)
 	{
-		setCurrentUrl();
-		setLastCommand("click Random Using " + locator);
-		locator.ClickRandom(this);
-		return this;
+		guard.enter("clickRandom");
+		try
+		{
+			setCurrentUrl();
+			setLastCommand("clickRandom", "click Random Using %s", locator);
+			return clickRandomElement(locator);
+		}
+		finally
+		{
+			guard.exit();
+		}
 	}
 
 	@Override
 	public SeleniumCommands checkBox(boolean selected, Using locator)
 	{
-		setCurrentUrl();
-		String option = (selected) ? "check" : "un-check";
-		setLastCommand("checkBox '" + option + "' Using " + locator);
-		locator.CheckBox(selected, this);
-		return this;
+		guard.enter("checkBox");
+		try
+		{
+			setCurrentUrl();
+			String option = (selected) ? "check" : "un-check";
+			setLastCommand("checkBox", "checkBox '%s' Using %s", option, locator);
+			return setCheckBox(selected, locator);
+		}
+		finally
+		{
+			guard.exit();
+		}
 	}
 
 	@Override
 	public WebElement getElement(Using locator)
 	{
-		setCurrentUrl();
-		setLastCommand("getElement Using " + locator);
-		return locator.GetElement(this);
+		guard.enter("getElement");
+		try
+		{
+			setCurrentUrl();
+			setLastCommand("getElement", "getElement Using %s", locator);
+			return getLiveCachedElement(locator);
+		}
+		finally
+		{
+			guard.exit();
+		}
 	}
 
 	@Override
 	public int getElementCount(Using locator)
 	{
-		setCurrentUrl();
-		setLastCommand("getElementCount Using " + locator);
-		return locator.GetElementCount(this);
+		guard.enter("getElementCount");
+		try
+		{
+			setCurrentUrl();
+			setLastCommand("getElementCount", "getElementCount Using %s", locator);
+			return resolveElements(locator).size();
+		}
+		finally
+		{
+			guard.exit();
+		}
+	}
+
+	@Override
+	public boolean isPresent(Using locator)
+	{
+		guard.enter("isPresent");
+		try
+		{
+			setCurrentUrl();
+			setLastCommand("isPresent", "isPresent Using %s", locator);
+			return findElementNow(locator) != null;
+		}
+		finally
+		{
+			guard.exit();
+		}
+	}
+
+	@Override
+	public WebElement tryGetElement(Using locator, long time, TimeUnit unit)
+	{
+		guard.enter("tryGetElement");
+		try
+		{
+			setCurrentUrl();
+			setLastCommand("tryGetElement", "tryGetElement Using %s within %s %s", locator, time, unit);
+			if (unit == null) throw new NullPointerException("TimeUnit must not be Null");
+			return tryResolveElement(locator, unit.toMillis(time));
+		}
+		finally
+		{
+			guard.exit();
+		}
 	}
 
 	@Override
 	public SeleniumCommands type(String input, Using locator)
 	{
-		setCurrentUrl();
-		setLastCommand("type '" + input + "' Using " + locator);
-		locator.Type(input, this);
-		return this;
+		guard.enter("type");
+		try
+		{
+			setCurrentUrl();
+			setLastCommand("type", "type '%s' Using %s", input, locator);
+			return typeInto(input, locator);
+		}
+		finally
+		{
+			guard.exit();
+		}
 	}
 
 	@Override
 	public SeleniumCommands type(String input, Using locator, String inputName)
 	{
-		setCurrentUrl();
-		setLastCommand("type '" + input + "' into " + inputName + " Using " + locator);
-		locator.Type(input, this);
-		return this;
+		guard.enter("type");
+		try
+		{
+			setCurrentUrl();
+			setLastCommand("type", "type '%s' into %s Using %s", input, inputName, locator);
+			return typeInto(input, locator);
+		}
+		finally
+		{
+			guard.exit();
+		}
 	}
 
 	@Override
 	public SeleniumCommands comboBoxByText(String visibleText, Using locator)
 	{
-		setCurrentUrl();
-		setLastCommand("Select '" + visibleText + "' Using " + locator);
-		locator.ComboBoxText(visibleText, this);
-		return this;
+		guard.enter("comboBoxByText");
+		try
+		{
+			setCurrentUrl();
+			setLastCommand("comboBoxByText", "Select '%s' Using %s", visibleText, locator);
+			return comboBoxSelectText(visibleText, locator);
+		}
+		finally
+		{
+			guard.exit();
+		}
 	}
 
 	@Override
 	public SeleniumCommands comboBoxByIndex(int index, Using locator)
 	{
-		setCurrentUrl();
-		setLastCommand("Select index '" + index + "' Using " + locator);
-		locator.ComboBoxIndex(index, this);
-		return this;
+		guard.enter("comboBoxByIndex");
+		try
+		{
+			setCurrentUrl();
+			setLastCommand("comboBoxByIndex", "Select index '%s' Using %s", index, locator);
+			if (index < 0) throw new IllegalArgumentException("Index must be greater then 0");
+			new Select(resolveElement(locator)).selectByIndex(index);
+			return this;
+		}
+		finally
+		{
+			guard.exit();
+		}
 	}
 
 	@Override
@@ -177,1026 +370,1578 @@ public class Commands implements SeleniumCommands, ByXPath, ByCSS, ByID, ByWebEl
             String visibleText, Using locator, String comboBoxName
     )
 	{
-		setCurrentUrl();
-		setLastCommand("Select '" + visibleText + "' from '" + comboBoxName + "' Using " + locator);
-		locator.ComboBoxText(visibleText, this);
-		return this;
+		guard.enter("comboBoxByText");
+		try
+		{
+			setCurrentUrl();
+			setLastCommand("comboBoxByText", "Select '%s' from '%s' Using %s", visibleText, comboBoxName, locator);
+			return comboBoxSelectText(visibleText, locator);
+		}
+		finally
+		{
+			guard.exit();
+		}
 	}
 
 	@Override
 	public String comboBoxGetDisplayText(Using locator)
 	{
-		setCurrentUrl();
-		setLastCommand("ComboBox get display text Using " + locator);
-		return locator.ComboBoxDisplayText(this);
+		guard.enter("comboBoxGetDisplayText");
+		try
+		{
+			setCurrentUrl();
+			setLastCommand("comboBoxGetDisplayText", "ComboBox get display text Using %s", locator);
+			return getSelectedText(resolveElement(locator));
+		}
+		finally
+		{
+			guard.exit();
+		}
 	}
 
 	@Override
 	public int comboBoxGetDisplayIndex(Using locator)
 	{
-		setCurrentUrl();
-		setLastCommand("ComboBox get display index Using " + locator);
-		return locator.ComboBoxDisplayIndex(this);
+		guard.enter("comboBoxGetDisplayIndex");
+		try
+		{
+			setCurrentUrl();
+			setLastCommand("comboBoxGetDisplayIndex", "ComboBox get display index Using %s", locator);
+			return getSelectedIndex(resolveElement(locator));
+		}
+		finally
+		{
+			guard.exit();
+		}
 	}
 
 	@Override
 	public SeleniumCommands comboBoxRandom(Using locator)
 	{
-		setCurrentUrl();
-		setLastCommand("Select Random Using " + locator);
-		locator.ComboBoxRandom(this);
-		return this;
+		guard.enter("comboBoxRandom");
+		try
+		{
+			setCurrentUrl();
+			setLastCommand("comboBoxRandom", "Select Random Using %s", locator);
+			return comboBoxSelectRandom(new Select(resolveElement(locator)));
+		}
+		finally
+		{
+			guard.exit();
+		}
 	}
 
 	@Override
 	public List<WebElement> comboBoxGetOptions(Using locator)
 	{
-		setCurrentUrl();
-		setLastCommand("Get ComboBox Options Using " + locator);
-		return locator.ComboBoxGetOptions(this);
+		guard.enter("comboBoxGetOptions");
+		try
+		{
+			setCurrentUrl();
+			setLastCommand("comboBoxGetOptions", "Get ComboBox Options Using %s", locator);
+			return new Select(resolveElement(locator)).getOptions();
+		}
+		finally
+		{
+			guard.exit();
+		}
 	}
 
 	@Override
-	public SeleniumCommands waitForElement(Using locator)
+	public ComboBoxOptions comboBoxGetOptionSnapshot(Using locator)
 	{
-		setCurrentUrl();
-		setLastCommand("Wait for WebElement Using " + locator);
-		locator.WaitForElement(this);
-		return this;
+		guard.enter("comboBoxGetOptionSnapshot");
+		try
+		{
+			setCurrentUrl();
+			setLastCommand("comboBoxGetOptionSnapshot", "Get ComboBox Option Snapshot Using %s", locator);
+			return getOptionSnapshot(resolveElement(locator));
+		}
+		finally
+		{
+			guard.exit();
+		}
 	}
 
 	@Override
-	public SeleniumCommands waitForElement(Using locator, String elementName)
+	public SeleniumCommands waitForElement(Using locator)
 	{
-		setCurrentUrl();
-		setLastCommand("Wait for WebElement '" + elementName + "' Using " + locator);
-		locator.WaitForElement(this);
-		return this;
+		guard.enter("waitForElement");
+		try
+		{
+			setCurrentUrl();
+			setLastCommand("waitForElement", "Wait for WebElement Using %s", locator);
+			resolveElement(locator);
+			return this;
+		}
+		finally
+		{
+			guard.exit();
+		}
 	}
 
 	@Override
-	public List<WebElement> getElements(Using locator)
+	public SeleniumCommands waitForElement(Using locator, String elementName)
 	{
-		setCurrentUrl();
-		setLastCommand("getElements Using " + locator);
-		return locator.GetElements(this);
+		guard.enter("waitForElement");
+		try
+		{
+			setCurrentUrl();
+			setLastCommand("waitForElement", "Wait for WebElement '%s' Using %s", elementName, locator);
+			resolveElement(locator);
+			return this;
+		}
+		finally
+		{
+			guard.exit();
+		}
 	}
 
 	@Override
-	public String getElementAttribute(String attribute, Using locator)
+	public SeleniumCommands waitForAbsence(Using locator)
 	{
-		setCurrentUrl();
-		setLastCommand("getElementAttribute '" + attribute + "' Using " + locator);
-		return locator.GetElementAttribute(attribute, this);
+		guard.enter("waitForAbsence");
+		try
+		{
+			setCurrentUrl();
+			setLastCommand("waitForAbsence", "Wait for absence Using %s", locator);
+			waitForPage(PageScripts.ABSENT, locator);
+			return this;
+		}
+		finally
+		{
+			guard.exit();
+		}
 	}
 
 	@Override
-	public String getText(Using locator)
+	public SeleniumCommands waitForInvisibility(Using locator)
 	{
-		setCurrentUrl();
-		setLastCommand("getText Using " + locator);
-		return locator.GetText(this);
+		guard.enter("waitForInvisibility");
+		try
+		{
+			setCurrentUrl();
+			setLastCommand("waitForInvisibility", "Wait for invisibility Using %s", locator);
+			waitForPage(PageScripts.INVISIBLE, locator);
+			return this;
+		}
+		finally
+		{
+			guard.exit();
+		}
 	}
 
 	@Override
-	public SeleniumCommands enterWebFrame(Using locator)
+	public Using waitForAny(Using... locators)
 	{
-		setCurrentUrl();
-		setLastCommand("Enter Frame Using " + locator);
-		webFrames.addFirst(locator);
-		locator.EnterWebFrame(this);
-		return this;
+		guard.enter("waitForAny");
+		try
+		{
+			setCurrentUrl();
+			setLastCommand("waitForAny", "Wait for any of %s", describe(locators));
+			Object index = waitForLocators(PageScripts.FIRST_PRESENT, locators);
+			return locators[((Number) index).intValue()];
+		}
+		finally
+		{
+			guard.exit();
+		}
 	}
 
 	@Override
-	public SeleniumCommands setFluentWaitTime(
-            Integer waitTime, TimeUnit waitUnit, Integer pollingTime, TimeUnit pollingUnit
-    )
+	public SeleniumCommands waitForAll(Using... locators)
 	{
-		waitTime = (waitTime == null || waitTime < 0) ? 0 : waitTime;
-		pollingTime = (pollingTime == null || pollingTime < 0) ? 0 : pollingTime;
-		waitUnit = (waitUnit == null) ? TimeUnit.SECONDS : waitUnit;
-		pollingUnit = (pollingUnit == null) ? TimeUnit.SECONDS : pollingUnit;
-
-		waitForElement = waitUnit.toSeconds(waitTime);
-		pollingForElement = pollingUnit.toSeconds(pollingTime);
-
-		if (waitForElement < pollingForElement)
-			throw new IllegalStateException("Wait time must be greater than or equal to polling time");
-
-		return this;
+		guard.enter("waitForAll");
+		try
+		{
+			setCurrentUrl();
+			setLastCommand("waitForAll", "Wait for all of %s", describe(locators));
+			waitForLocators(PageScripts.ALL_PRESENT, locators);
+			return this;
+		}
+		finally
+		{
+			guard.exit();
+		}
 	}
 
 	@Override
-	public SeleniumCommands waitForTime(long time, TimeUnit unit)
+	public SeleniumCommands waitUntil(Condition condition)
 	{
-		if (time <= 0) throw new IllegalArgumentException("Wait time must be positive and greater than 0");
-		long waitUntil = System.currentTimeMillis() + unit.toMillis(time);
-		while (System.currentTimeMillis() < waitUntil)
-		{/*Sleep*/}
-		return this;
+		guard.enter("waitUntil");
+		try
+		{
+			setCurrentUrl();
+			setLastCommand("waitUntil", "Wait until %s", condition);
+			if (condition == null) throw new NullPointerException("Condition must not be Null");
+			waitForLocators(PageScripts.CONDITION, condition.locators(), condition.absentFlags(), condition.checks());
+			return this;
+		}
+		finally
+		{
+			guard.exit();
+		}
 	}
 
 	@Override
-	public SeleniumCommands open(String url)
+	public BatchReport runBatch(Batch batch)
 	{
-		setLastCommand("open '" + url + "'");
-		validateURL(url);
-		driver.get(url);
-		return this;
+		guard.enter("runBatch");
+		try
+		{
+			setCurrentUrl();
+			setLastCommand("runBatch", "Run %s", batch);
+			if (batch == null) throw new NullPointerException("Batch must not be Null");
+			List<Batch.Step> steps = batch.steps();
+			List<BatchReport.StepResult> results = new ArrayList<BatchReport.StepResult>(steps.size());
+			int scriptCalls = 0;
+			int next = 0;
+			while (next < steps.size())
+			{
+				String reason;
+				try
+				{
+					scriptCalls++;
+					List<Object> outcome = runBatchScript(steps.subList(next, steps.size()));
+					int done = ((Number) outcome.get(0)).intValue();
+					for (int i=0; i < done; i++)
+					{
+						Batch.Step step = steps.get(next + i);
+						results.add(new BatchReport.StepResult(step, BatchReport.Outcome.SCRIPTED, null, null));
+					}
+					next += done;
+					if (next == steps.size()) break;
+					reason = String.valueOf(outcome.get(1));
+				}
+				catch (WebDriverException e)
+				{
+					//Such as a held element that went stale, which fails the whole script
+					reason = "the script failed with " + e.getClass().getSimpleName();
+				}
+				results.add(runBatchStepNatively(steps.get(next++), reason));
+			}
+
+			BatchReport report = new BatchReport(results, scriptCalls);
+			if (logger.isDebugEnabled()) logger.debug(report);
+			if (report.hasFailures()) throw new BatchException(report);
+			return report;
+		}
+		finally
+		{
+			guard.exit();
+		}
 	}
 
 	@Override
-	public SeleniumCommands close()
+	public List<WebElement> getElements(Using locator)
 	{
-		setLastCommand("close WebDriver " + driver.getCurrentUrl());
+		guard.enter("getElements");
 		try
 		{
-			driver.quit();
-		} catch (Exception e)
-		{/*Ignore if driver is already closed*/}
-		return this;
+			setCurrentUrl();
+			setLastCommand("getElements", "getElements Using %s", locator);
+			return resolveElements(locator);
+		}
+		finally
+		{
+			guard.exit();
+		}
 	}
 
 	@Override
-	public SeleniumCommands popAllWebFrames()
+	public String getElementAttribute(String attribute, Using locator)
 	{
-		setCurrentUrl();
-		setLastCommand("Pop All Frames");
-		webFrames.clear();
-		driver.switchTo().defaultContent();
-		return this;
+		guard.enter("getElementAttribute");
+		try
+		{
+			setCurrentUrl();
+			setLastCommand("getElementAttribute", "getElementAttribute '%s' Using %s", attribute, locator);
+			if (attribute == null) throw new NullPointerException("String param must not be Null");
+			try
+			{
+				return getCachedElement(locator).getAttribute(attribute);
+			}
+			catch (StaleElementReferenceException e)
+			{
+				if (!isCacheable(locator)) throw e;
+				elementCache.clear();
+				return getCachedElement(locator).getAttribute(attribute);
+			}
+		}
+		finally
+		{
+			guard.exit();
+		}
 	}
 
 	@Override
-	public SeleniumCommands popCurrentWebFrame()
+	public String getText(Using locator)
 	{
-		setCurrentUrl();
-		setLastCommand("Pop Current Frame " + webFrames.getFirst());
-		if (webFrames.size() <= 1) popAllWebFrames();
-		else
+		guard.enter("getText");
+		try
 		{
-			//switch to default webFrame
-			driver.switchTo().defaultContent();
-
-			//remove the last frame we had entered
-			webFrames.removeFirst();
-
-			//We need to enter each frame
-			for (int i=webFrames.size()-1; i>=0; i--)
+			setCurrentUrl();
+			setLastCommand("getText", "getText Using %s", locator);
+			try
+			{
+				return getCachedElement(locator).getText();
+			}
+			catch (StaleElementReferenceException e)
 			{
-				webFrames.get(i).EnterWebFrame(this);
+				if (!isCacheable(locator)) throw e;
+				elementCache.clear();
+				return getCachedElement(locator).getText();
 			}
 		}
-		return this;
+		finally
+		{
+			guard.exit();
+		}
 	}
 
 	@Override
-	public String getElementXPath(WebElement element)
+	public SeleniumCommands enterWebFrame(Using locator)
 	{
-		setLastCommand("getElementXPath");
-		return (String) ((JavascriptExecutor) driver).executeScript(
-				"getXPath=function(node)" +
-						"{" +
-						"if (node.id !== '')" +
-						"{" +
-						"return '//' + node.tagName.toLowerCase() + '[@id=\"' + node.id + '\"]'" +
-						"}" +
-
-						"if (node === document.body)" +
-						"{" +
-						"return node.tagName.toLowerCase()" +
-						"}" +
-
-						"var nodeCount = 0;" +
-						"var childNodes = node.parentNode.childNodes;" +
+		guard.enter("enterWebFrame");
+		try
+		{
+			setCurrentUrl();
+			setLastCommand("enterWebFrame", "Enter Frame Using %s", locator);
+			context.set(context.get().withFrame(locator));
+			enterFrame(locator);
+			return this;
+		}
+		finally
+		{
+			guard.exit();
+		}
+	}
 
-						"for (var i=0; i<childNodes.length; i++)" +
-						"{" +
-						"var currentNode = childNodes[i];" +
+	@Override
+	public SeleniumCommands setFluentWaitTime(
+            Integer waitTime, TimeUnit waitUnit, Integer pollingTime, TimeUnit pollingUnit
+    )
+	{
+		guard.enter("setFluentWaitTime");
+		try
+		{
+			waitTime = (waitTime == null || waitTime < 0) ? 0 : waitTime;
+			pollingTime = (pollingTime == null || pollingTime < 0) ? 0 : pollingTime;
+			waitUnit = (waitUnit == null) ? TimeUnit.SECONDS : waitUnit;
+			pollingUnit = (pollingUnit == null) ? TimeUnit.SECONDS : pollingUnit;
 
-						"if (currentNode === node)" +
-						"{" +
-						"return getXPath(node.parentNode) + '/' + node.tagName.toLowerCase() + '[' + (nodeCount+1) + ']'" +
-						"}" +
+			long waitMillis = waitUnit.toMillis(waitTime);
+			long pollingMillis = pollingUnit.toMillis(pollingTime);
 
-						"if (currentNode.nodeType === 1 && " +
-						"currentNode.tagName.toLowerCase() === node.tagName.toLowerCase())" +
-						"{" +
-						"nodeCount++" +
-						"}" +
-						"}" +
-						"};" +
+			if (waitMillis < pollingMillis)
+				throw new IllegalStateException("Wait time must be greater than or equal to polling time");
 
-						"return getXPath(arguments[0]);", element);
+			waitForElement = waitMillis;
+			pollingForElement = pollingMillis;
+			configureWait();
+			return this;
+		}
+		finally
+		{
+			guard.exit();
+		}
 	}
 
 	@Override
-	public SeleniumCommands openNewWindow(String url)
+	public SeleniumCommands setPollingBackoff(long initialPollingTime, TimeUnit pollingUnit, double multiplier)
 	{
-		setLastCommand("open New Window " + url);
-		validateURL(url);
-		windowBuilder = new WindowBuilder(driver, url);
-		return this;
+		guard.enter("setPollingBackoff");
+		try
+		{
+			if (initialPollingTime < 0) throw new IllegalArgumentException("Initial polling time must not be negative");
+			if (multiplier < 1) throw new IllegalArgumentException("Polling multiplier must be 1 or greater");
+			pollingUnit = (pollingUnit == null) ? TimeUnit.MILLISECONDS : pollingUnit;
+
+			initialPollingForElement = pollingUnit.toMillis(initialPollingTime);
+			pollingMultiplier = multiplier;
+			configureWait();
+			return this;
+		}
+		finally
+		{
+			guard.exit();
+		}
 	}
 
 	@Override
-	public SeleniumCommands switchToWindow()
+	public SeleniumCommands setWaitStrategy(WaitStrategy strategy)
 	{
-		if (windowBuilder != null)
+		guard.enter("setWaitStrategy");
+		try
 		{
-			setLastCommand("Switch to Window");
-			windowBuilder.switchToWindow();
-			logger.debug("Controlling Window: " + driver.getCurrentUrl());
+			if (strategy == null) throw new NullPointerException("WaitStrategy must not be Null");
+			waitStrategy = strategy;
+			//The caller may have changed the script timeout since we last set it
+			scriptTimeout = -1;
+			return this;
 		}
-		else
-		{
-			setLastCommand("Switch to Popup");
-			parentHandle = driver.getWindowHandle();
-			Set<String> handles = driver.getWindowHandles();
-			handles.remove(parentHandle);
-			if (handles.size() == 0)
-			{
-				logger.warn("Could not find window to switch to. Returning control to the parent window");
-				parentHandle = null;
-				return this;
-			}
-			popUpHandle = (String) handles.toArray()[0];
-			driver.switchTo().window(popUpHandle);
-			logger.debug("Controlling Popup: " + driver.getCurrentUrl());
-		}
-
-		return this;
-	}
-
-	@Override
-	public SeleniumCommands switchToParent()
-	{
-		setLastCommand("Switch to Parent");
-		boolean parent = false;
-		if (windowBuilder != null)
-		{
-			windowBuilder.switchToParent();
-		}
-		else if (popUpHandle != null)
-		{
-			driver.switchTo().window(parentHandle);
-		}
-		else
-		{
-			parent = true;
-			logger.warn("switchToParent Invalid: WebDriver already has control of the parent window");
-		}
-
-		if (!parent)
+		finally
 		{
-			logger.debug("Controlling Parent: " + driver.getCurrentUrl());
+			guard.exit();
 		}
-
-		return this;
 	}
 
 	@Override
-	public SeleniumCommands closeWindow()
+	public SeleniumCommands waitForTime(long time, TimeUnit unit)
 	{
-		setLastCommand("close Window");
-		if (windowBuilder != null)
-		{
-			windowBuilder.close();
-			logger.debug("Closed Window " + windowBuilder.getWindowUrl());
-			windowBuilder = null;
-		}
-		else if (popUpHandle != null)
+		guard.enter("waitForTime");
+		try
 		{
-			if (driver.getWindowHandle().equals(popUpHandle))
+			if (time <= 0) throw new IllegalArgumentException("Wait time must be positive and greater than 0");
+			if (unit == null) throw new NullPointerException("TimeUnit must not be Null");
+			setLastCommand("waitForTime", "waitForTime %s %s", time, unit);
+			//Like every wait, the pause lasts no longer than the time left in the deadline
+			long requested = unit.toNanos(time);
+			long pauseTime = (deadline == null) ? requested : Math.min(requested, deadline.remaining(TimeUnit.NANOSECONDS));
+			if (pauseTime <= 0) throw deadlineExceeded(null);
+			Pause pause = new Pause(pauseTime, TimeUnit.NANOSECONDS);
+			currentPause = pause;
+			try
 			{
-				String popUpUrl = driver.getCurrentUrl();
-				driver.close();
-				popUpHandle = null;
-				driver.switchTo().window(parentHandle);
-				logger.debug("Closed Popup " + popUpUrl);
+				if (!pause.await()) logger.debug("waitForTime cancelled with " +
+						pause.remaining(TimeUnit.MILLISECONDS) + "ms remaining");
+				else if (pauseTime < requested) throw deadlineExceeded(null);
 			}
-			else
+			catch (InterruptedException e)
+			{
+				Thread.currentThread().interrupt();
+				throw new WebDriverException("Interrupted during waitForTime", e);
+			}
+			finally
 			{
-				logger.warn("closeWindow Invalid; WebDriver has control of the parent window");
+				currentPause = null;
 			}
+			return this;
+		}
+		finally
+		{
+			guard.exit();
 		}
-
-		return this;
 	}
 
-	/*===================================================================
-	 *
-	 * ByCSS functions
-	 *
-	 *===================================================================*/
-
 	@Override
-	public SeleniumCommands clickElementByCSS(String css)
+	public SeleniumCommands cancelWaitForTime()
 	{
-		WebElement element = fluentWaitForElementCss(css);
-		fluentWaitForClickableCss(css);
-		new Actions(driver).moveToElement(element).perform();
-		element.click();
+		Pause pause = currentPause;
+		if (pause != null) pause.cancel();
 		return this;
 	}
 
 	@Override
-	public SeleniumCommands clickRandomElementByCSS(String css)
-	{
-		waitForCSS(css);
-		List<WebElement> elements = getAllVisibleElements(fluentWaitForElementsCss(css));
-		return clickRandom(elements);
-	}
-
-	@Override
-	public SeleniumCommands checkBoxByCSS(boolean selected, String css)
+	public SeleniumCommands open(String url)
 	{
-		WebElement element = fluentWaitForElementCss(css);
-		if (selected != element.isSelected())
+		guard.enter("open");
+		try
 		{
-			clickElementByWebElement(element);
+			setLastCommand("open", "open '%s'", url);
+			validateURL(url);
+			contextChanged();
+			driver.get(url);
+			recordUrl(url);
+			return this;
+		}
+		finally
+		{
+			guard.exit();
 		}
-		return this;
-	}
-
-	@Override
-	public WebElement getElementByCSS(String css)
-	{
-		return fluentWaitForElementCss(css);
-	}
-
-	@Override
-	public int getElementCountByCSS(String css)
-	{
-		List<WebElement> element = fluentWaitForElementsCss(css);
-		return (element == null) ? 0 : element.size();
 	}
 
 	@Override
-	public List<WebElement> getElementsByCSS(String css)
+	public SeleniumCommands close()
 	{
-		return fluentWaitForElementsCss(css);
+		guard.enter("close");
+		try
+		{
+			setLastCommand("close", "close WebDriver %s", context.get().getCurrentUrl());
+			contextChanged();
+			try
+			{
+				driver.quit();
+			} catch (Exception e)
+			{/*Ignore if driver is already closed*/}
+			return this;
+		}
+		finally
+		{
+			guard.exit();
+		}
 	}
 
 	@Override
-	public SeleniumCommands waitForCSS(String css)
+	public SeleniumCommands popAllWebFrames()
 	{
-		fluentWaitForElementCss(css);
-		return this;
+		guard.enter("popAllWebFrames");
+		try
+		{
+			setCurrentUrl();
+			setLastCommand("popAllWebFrames", "Pop All Frames");
+			context.set(context.get().withoutFrames());
+			contextChanged();
+			driver.switchTo().defaultContent();
+			return this;
+		}
+		finally
+		{
+			guard.exit();
+		}
 	}
 
 	@Override
-	public SeleniumCommands comboBoxVisibleTextByCSS(String visibleText, String css)
+	public SeleniumCommands popCurrentWebFrame()
 	{
-		WebElement element = getFirstVisibleElement(fluentWaitForElementsCss(css));
-		Select comboBox = new Select(element);
-		comboBox.selectByVisibleText(visibleText);
-		return this;
+		guard.enter("popCurrentWebFrame");
+		try
+		{
+			setCurrentUrl();
+			setLastCommand("popCurrentWebFrame", "Pop Current Frame %s", context.get().getCurrentFrame());
+			if (context.get().getFrames().size() <= 1) popAllWebFrames();
+			else
+			{
+				//switch to default webFrame
+				contextChanged();
+				driver.switchTo().defaultContent();
+
+				//remove the last frame we had entered
+				context.set(context.get().withoutCurrentFrame());
+
+				//We need to enter each frame
+				List<Using> frames = context.get().getFrames();
+				for (int i=frames.size()-1; i>=0; i--)
+				{
+					enterFrame(frames.get(i));
+				}
+			}
+			return this;
+		}
+		finally
+		{
+			guard.exit();
+		}
 	}
 
 	@Override
-	public SeleniumCommands comboBoxIndexByCSS(int index, String css)
+	public String getElementXPath(WebElement element)
 	{
-		WebElement element = fluentWaitForElementCss(css);
-		Select comboBox = new Select(element);
-		comboBox.selectByIndex(index);
-		return this;
+		guard.enter("getElementXPath");
+		try
+		{
+			setLastCommand("getElementXPath", "getElementXPath");
+			return (String) ((JavascriptExecutor) driver).executeScript(
+					"getXPath=function(node)" +
+							"{" +
+							"if (node.id !== '')" +
+							"{" +
+							"return '//' + node.tagName.toLowerCase() + '[@id=\"' + node.id + '\"]'" +
+							"}" +
+
+							"if (node === document.body)" +
+							"{" +
+							"return node.tagName.toLowerCase()" +
+							"}" +
+
+							"var nodeCount = 0;" +
+							"var childNodes = node.parentNode.childNodes;" +
+
+							"for (var i=0; i<childNodes.length; i++)" +
+							"{" +
+							"var currentNode = childNodes[i];" +
+
+							"if (currentNode === node)" +
+							"{" +
+							"return getXPath(node.parentNode) + '/' + node.tagName.toLowerCase() + '[' + (nodeCount+1) + ']'" +
+							"}" +
+
+							"if (currentNode.nodeType === 1 && " +
+							"currentNode.tagName.toLowerCase() === node.tagName.toLowerCase())" +
+							"{" +
+							"nodeCount++" +
+							"}" +
+							"}" +
+							"};" +
+
+							"return getXPath(arguments[0]);", element);
+		}
+		finally
+		{
+			guard.exit();
+		}
 	}
 
 	@Override
-	public SeleniumCommands comboBoxRandomByCSS(String css)
+	public SeleniumCommands openNewWindow(String url)
 	{
-		WebElement element = fluentWaitForElementCss(css);
-		return comboBoxSelectRandom(new Select(element));
+		guard.enter("openNewWindow");
+		try
+		{
+			setLastCommand("openNewWindow", "open New Window %s", url);
+			validateURL(url);
+			contextChanged();
+			windowBuilder = new WindowBuilder(driver, url);
+			recordUrl(windowBuilder.getWindowUrl());
+			return this;
+		}
+		finally
+		{
+			guard.exit();
+		}
 	}
 
 	@Override
-	public int comboBoxGetDisplayIndexByCSS(String css)
+	public SeleniumCommands switchToWindow()
 	{
-		WebElement element = fluentWaitForElementCss(css);
-		String text = comboBoxGetDisplayTextByCSS(css);
-		return getComboBoxIndexFromText(text, element);
-	}
+		guard.enter("switchToWindow");
+		try
+		{
+			if (windowBuilder != null)
+			{
+				setLastCommand("switchToWindow", "Switch to Window");
+				contextChanged();
+				windowBuilder.switchToWindow();
+				recordUrl(windowBuilder.getWindowUrl());
+				logger.debug("Controlling Window: " + context.get().getCurrentUrl());
+			}
+			else
+			{
+				setLastCommand("switchToWindow", "Switch to Popup");
+				String parentHandle = driver.getWindowHandle();
+				Set<String> handles = driver.getWindowHandles();
+				handles.remove(parentHandle);
+				if (handles.size() == 0)
+				{
+					logger.warn("Could not find window to switch to. Returning control to the parent window");
+					context.set(context.get().withPopUp(null, context.get().getPopUpHandle()));
+					return this;
+				}
+				String popUpHandle = (String) handles.toArray()[0];
+				context.set(context.get().withPopUp(parentHandle, popUpHandle));
+				contextChanged();
+				driver.switchTo().window(popUpHandle);
+				recordUrl(null);
+				if (logger.isDebugEnabled()) logger.debug("Controlling Popup: " + driver.getCurrentUrl());
+			}
 
-	@Override
-	public String comboBoxGetDisplayTextByCSS(String css)
-	{
-		WebElement element = fluentWaitForElementCss(css);
-		return new Select(element).getFirstSelectedOption().getText();
+			return this;
+		}
+		finally
+		{
+			guard.exit();
+		}
 	}
 
 	@Override
-	public List<WebElement> comboBoxGetOptionsByCSS(String css)
+	public SeleniumCommands switchToParent()
 	{
-		WebElement element = fluentWaitForElementCss(css);
-		return new Select(element).getOptions();
-	}
+		guard.enter("switchToParent");
+		try
+		{
+			setLastCommand("switchToParent", "Switch to Parent");
+			boolean parent = false;
+			if (windowBuilder != null)
+			{
+				contextChanged();
+				windowBuilder.switchToParent();
+			}
+			else if (context.get().getPopUpHandle() != null)
+			{
+				contextChanged();
+				driver.switchTo().window(context.get().getParentHandle());
+			}
+			else
+			{
+				parent = true;
+				logger.warn("switchToParent Invalid: WebDriver already has control of the parent window");
+			}
 
-	@Override
-	public SeleniumCommands typeByCSS(String input, String css)
-	{
-		WebElement element;
-		if (fluentWaitForElementsCss(css).size() > 1)
-			element = getFirstVisibleElement(fluentWaitForElementsCss(css));
-		else
-			element = fluentWaitForElementCss(css);
-		fluentWaitForVisibilityOfElement(element);
-		element.clear();
-		element.sendKeys(input + "\t");
-		return this;
-	}
+			if (!parent)
+			{
+				recordUrl(null);
+				if (logger.isDebugEnabled()) logger.debug("Controlling Parent: " + driver.getCurrentUrl());
+			}
 
-	@Override
-	public String getElementAttributeByCSS(String attribute, String css)
-	{
-		WebElement element = fluentWaitForElementCss(css);
-		return element.getAttribute(attribute);
+			return this;
+		}
+		finally
+		{
+			guard.exit();
+		}
 	}
 
 	@Override
-	public String getTextByCSS(String css)
+	public SeleniumCommands closeWindow()
 	{
-		WebElement element = fluentWaitForElementCss(css);
-		return element.getText();
-	}
+		guard.enter("closeWindow");
+		try
+		{
+			setLastCommand("closeWindow", "close Window");
+			if (windowBuilder != null)
+			{
+				contextChanged();
+				windowBuilder.close();
+				recordUrl(null);
+				logger.debug("Closed Window " + windowBuilder.getWindowUrl());
+				windowBuilder = null;
+			}
+			else if (context.get().getPopUpHandle() != null)
+			{
+				SessionContext popUp = context.get();
+				if (driver.getWindowHandle().equals(popUp.getPopUpHandle()))
+				{
+					String popUpUrl = logger.isDebugEnabled() ? driver.getCurrentUrl() : null;
+					contextChanged();
+					driver.close();
+					context.set(popUp.withPopUp(popUp.getParentHandle(), null));
+					driver.switchTo().window(popUp.getParentHandle());
+					recordUrl(null);
+					if (popUpUrl != null) logger.debug("Closed Popup " + popUpUrl);
+				}
+				else
+				{
+					logger.warn("closeWindow Invalid; WebDriver has control of the parent window");
+				}
+			}
 
-	@Override
-	public SeleniumCommands enterWebFrameByCSS(String css)
-	{
-		WebElement element = fluentWaitForElementCss(css);
-		driver.switchTo().frame(element);
-		return this;
+			return this;
+		}
+		finally
+		{
+			guard.exit();
+		}
 	}
 
-
-	/*===================================================================
-	 *
-	 * ByID functions
+	/**
+	 * Puts every following wait on the scenario's time budget. Each wait lasts no longer than the time
+	 * left in the deadline, and the first one to run out of it throws a {@link DeadlineExceededException}
+	 * with a breakdown of how long each step took.
 	 *
-	 *===================================================================*/
-
-	@Override
-	public SeleniumCommands clickElementByID(String id)
-	{
-		WebElement element = fluentWaitForElementId(id);
-		fluentWaitForClickableId(id);
-		new Actions(driver).moveToElement(element).perform();
-		element.click();
-		return this;
-	}
-
-	@Override
-	public SeleniumCommands clickRandomElementByID(String id)
-	{
-		waitForID(id);
-		List<WebElement> elements = getAllVisibleElements(fluentWaitForElementsId(id));
-		return clickRandom(elements);
-	}
-
-	@Override
-	public SeleniumCommands checkBoxByID(boolean selected, String id)
+	 * @param deadline The scenario's {@link Deadline}, or null to wait on the wait time alone
+	 * @return This {@link Commands} object
+	 */
+	public Commands setDeadline(Deadline deadline)
 	{
-		WebElement element = fluentWaitForElementId(id);
-		if (selected != element.isSelected())
+		guard.enter("setDeadline");
+		try
 		{
-			clickElementByWebElement(element);
+			this.deadline = deadline;
+			return this;
+		}
+		finally
+		{
+			guard.exit();
 		}
-		return this;
-	}
-
-	@Override
-	public WebElement getElementByID(String id)
-	{
-		return fluentWaitForElementId(id);
-	}
-
-	@Override
-	public int getElementCountByID(String id)
-	{
-		List<WebElement> element = fluentWaitForElementsId(id);
-		return (element == null) ? 0 : element.size();
-	}
-
-	@Override
-	public SeleniumCommands typeByID(String input, final String id)
-	{
-		WebElement element;
-		if (fluentWaitForElementsId(id).size() > 1)
-			element = getFirstVisibleElement(fluentWaitForElementsId(id));
-		else
-			element = fluentWaitForElementId(id);
-		fluentWaitForVisibilityOfElement(element);
-		element.clear();
-		element.sendKeys(input + "\t");
-		return this;
-	}
-
-	@Override
-	public SeleniumCommands comboBoxVisibleTextByID(String visibleText, String id)
-	{
-		WebElement element = getFirstVisibleElement(fluentWaitForElementsId(id));
-		Select comboBox = new Select(element);
-		comboBox.selectByVisibleText(visibleText);
-		return this;
-	}
-
-	@Override
-	public SeleniumCommands comboBoxIndexByID(int index, String id)
-	{
-		WebElement element = fluentWaitForElementId(id);
-		Select comboBox = new Select(element);
-		comboBox.selectByIndex(index);
-		return this;
-	}
-
-	@Override
-	public SeleniumCommands comboBoxRandomByID(String id)
-	{
-		WebElement element = fluentWaitForElementId(id);
-		return comboBoxSelectRandom(new Select(element));
-	}
-
-	@Override
-	public int comboBoxGetDisplayIndexByID(String id)
-	{
-		WebElement element = fluentWaitForElementId(id);
-		String text = comboBoxGetDisplayTextByID(id);
-		return getComboBoxIndexFromText(text, element);
-	}
-
-	@Override
-	public String comboBoxGetDisplayTextByID(String id)
-	{
-		WebElement element = fluentWaitForElementId(id);
-		return new Select(element).getFirstSelectedOption().getText();
-	}
-
-	@Override
-	public List<WebElement> comboBoxGetOptionsByID(String id)
-	{
-		WebElement element = fluentWaitForElementId(id);
-		return new Select(element).getOptions();
-	}
-
-	@Override
-	public SeleniumCommands waitForID(String id)
-	{
-		fluentWaitForElementId(id);
-		return this;
-	}
-
-	@Override
-	public List<WebElement> getElementsByID(String id)
-	{
-		return fluentWaitForElementsId(id);
-	}
-
-	@Override
-	public String getElementAttributeByID(String attribute, String id)
-	{
-		WebElement element = fluentWaitForElementId(id);
-		return element.getAttribute(attribute);
-	}
-
-	@Override
-	public String getTextByID(String id)
-	{
-		WebElement element = fluentWaitForElementId(id);
-		return element.getText();
 	}
 
-	@Override
-	public SeleniumCommands enterWebFrameByID(String id)
+	public Deadline getDeadline()
 	{
-		WebElement element = fluentWaitForElementId(id);
-		driver.switchTo().frame(element);
-		return this;
+		guard.enter("getDeadline");
+		try
+		{
+			return deadline;
+		}
+		finally
+		{
+			guard.exit();
+		}
 	}
 
-
-	/*===================================================================
-	 *
-	 * ByXPath functions
+	/**
+	 * Safe to call from any thread, even while another thread is running a command.
 	 *
-	 *===================================================================*/
-
-	@Override
-	public SeleniumCommands clickElementByXPath(String xpath)
+	 * @return A snapshot of the session: the name of its last command, url, frames and popup
+	 */
+	public SessionContext getContext()
 	{
-		WebElement element = fluentWaitForElementXPath(xpath);
-		fluentWaitForClickableXPath(xpath);
-		new Actions(driver).moveToElement(element).perform();
-		element.click();
-		return this;
+		return context.get();
 	}
 
-	@Override
-	public SeleniumCommands clickRandomElementByXPath(String xpath)
+	/**
+	 * @param command The name of a {@link SeleniumCommands} method, such as "type" or "click"
+	 * @return How many remote find calls every run of that command has made in total
+	 */
+	public long getRemoteFindCount(String command)
 	{
-		waitForXPath(xpath);
-		List<WebElement> elements = getAllVisibleElements(fluentWaitForElementsXPath(xpath));
-		return clickRandom(elements);
+		guard.enter("getRemoteFindCount");
+		try
+		{
+			return resolutions.getFindCount(command);
+		}
+		finally
+		{
+			guard.exit();
+		}
 	}
 
-	@Override
-	public SeleniumCommands checkBoxByXPath(boolean selected, String xpath)
+	/**
+	 * @param command The name of a {@link SeleniumCommands} method, such as "type" or "click"
+	 * @return How many times that command has run
+	 */
+	public long getCommandCount(String command)
 	{
-		WebElement element = fluentWaitForElementXPath(xpath);
-		if (selected != element.isSelected())
+		guard.enter("getCommandCount");
+		try
 		{
-			clickElementByWebElement(element);
+			return resolutions.getInvocationCount(command);
+		}
+		finally
+		{
+			guard.exit();
 		}
-		return this;
 	}
 
-	@Override
-	public WebElement getElementByXPath(String xpath)
+	/**
+	 * Chooses how we keep track of the url for failure messages. With lazy tracking, the default, the
+	 * url is recorded from {@link #open(String)} and window changes and the driver is only asked for
+	 * it when a wait times out. With eager tracking the driver is asked at the start of nearly every
+	 * command, which costs a round trip per command on a remote driver.
+	 *
+	 * @param lazy true to track the url lazily
+	 * @return This {@link Commands} object
+	 */
+	public Commands setLazyUrlTracking(boolean lazy)
 	{
-		return fluentWaitForElementXPath(xpath);
+		guard.enter("setLazyUrlTracking");
+		try
+		{
+			lazyUrlTracking = lazy;
+			return this;
+		}
+		finally
+		{
+			guard.exit();
+		}
 	}
 
-	@Override
-	public int getElementCountByXPath(String xpath)
+	/**
+	 * @return How many getCurrentUrl round trips lazy url tracking has saved so far
+	 */
+	public long getSavedUrlLookups()
 	{
-		List<WebElement> element = fluentWaitForElementsXPath(xpath);
-		return (element == null) ? 0 : element.size();
+		guard.enter("getSavedUrlLookups");
+		try
+		{
+			return savedUrlLookups;
+		}
+		finally
+		{
+			guard.exit();
+		}
 	}
 
-	@Override
-	public SeleniumCommands typeByXPath(String input, String xpath)
+	/**
+	 * Turns the element cache on or off. While on, {@link #getElement(Using)}, {@link #getText(Using)}
+	 * and {@link #getElementAttribute(String, Using)} reuse the element a locator found earlier in the
+	 * same window and frame instead of finding it again. The cache is emptied on navigation through
+	 * this object, on every window or frame switch, and whenever a cached element has gone stale.
+	 * Elements returned by getElement may still go stale if the page changes behind our back.
+	 *
+	 * @param enabled true to cache elements
+	 * @return This {@link Commands} object
+	 */
+	public Commands setElementCache(boolean enabled)
 	{
-		WebElement element;
-		if (fluentWaitForElementsXPath(xpath).size() > 1)
-			element = getFirstVisibleElement(fluentWaitForElementsXPath(xpath));
-		else
-			element = fluentWaitForElementXPath(xpath);
-		fluentWaitForVisibilityOfElement(element);
-		element.clear();
-		element.sendKeys(input + "\t");
-		return this;
+		guard.enter("setElementCache");
+		try
+		{
+			elementCache.setEnabled(enabled);
+			return this;
+		}
+		finally
+		{
+			guard.exit();
+		}
 	}
 
-	@Override
-	public SeleniumCommands comboBoxVisibleTextByXPath(String visibleText, String xpath)
+	public long getElementCacheHits()
 	{
-		WebElement element = getFirstVisibleElement(fluentWaitForElementsXPath(xpath));
-		Select comboBox = new Select(element);
-		comboBox.selectByVisibleText(visibleText);
-		return this;
+		guard.enter("getElementCacheHits");
+		try
+		{
+			return elementCache.getHits();
+		}
+		finally
+		{
+			guard.exit();
+		}
 	}
 
-	@Override
-	public SeleniumCommands comboBoxIndexByXPath(int index, String xpath)
+	public long getElementCacheMisses()
 	{
-		WebElement element = fluentWaitForElementXPath(xpath);
-		Select comboBox = new Select(element);
-		comboBox.selectByIndex(index);
-		return this;
+		guard.enter("getElementCacheMisses");
+		try
+		{
+			return elementCache.getMisses();
+		}
+		finally
+		{
+			guard.exit();
+		}
 	}
 
-	@Override
-	public SeleniumCommands comboBoxRandomByXPath(String xpath)
+	/**
+	 * @return The share of cacheable lookups answered from the element cache, between 0 and 1
+	 */
+	public double getElementCacheHitRate()
 	{
-		WebElement element = fluentWaitForElementXPath(xpath);
-		return comboBoxSelectRandom(new Select(element));
+		guard.enter("getElementCacheHitRate");
+		try
+		{
+			return elementCache.getHitRate();
+		}
+		finally
+		{
+			guard.exit();
+		}
 	}
 
-	@Override
-	public int comboBoxGetDisplayIndexByXPath(String xpath)
+	/*===================================================================
+	 *
+	 * Private Class functions
+	 *
+	 *===================================================================*/
+
+	private Wait<WebDriver> Wait()
 	{
-		WebElement element = fluentWaitForElementXPath(xpath);
-		String text = comboBoxGetDisplayTextByXPath(xpath);
-		return getComboBoxIndexFromText(text, element);
+		return (deadline == null) ? wait : deadlineWait;
 	}
 
-	@Override
-	public String comboBoxGetDisplayTextByXPath(String xpath)
+	/**
+	 * @param timeout How long the wait would last without a deadline, in milliseconds
+	 * @return The shorter of the timeout and the time left in the deadline
+	 * @throws DeadlineExceededException if no time is left
+	 */
+	private long waitTimeout(long timeout)
 	{
-		WebElement element = fluentWaitForElementXPath(xpath);
-		return new Select(element).getFirstSelectedOption().getText();
+		if (deadline == null) return timeout;
+		long remaining = deadline.remaining(TimeUnit.MILLISECONDS);
+		if (remaining <= 0) throw deadlineExceeded(null);
+		return Math.min(timeout, remaining);
 	}
 
-	@Override
-	public List<WebElement> comboBoxGetOptionsByXPath(String xpath)
+	private DeadlineExceededException deadlineExceeded(Throwable cause)
 	{
-		WebElement element = fluentWaitForElementXPath(xpath);
-		return new Select(element).getOptions();
+		return deadline.exceeded(this, context.get().lastCommandDescription(), cause);
 	}
 
-	@Override
-	public SeleniumCommands waitForXPath(String xpath)
+	/**
+	 * Applies the current timeout and polling settings to our wait. Only needed when they change.
+	 */
+	private void configureWait()
 	{
-		fluentWaitForElementXPath(xpath);
-		return this;
+		wait.withTimeout(waitForElement, TimeUnit.MILLISECONDS)
+				.pollingEvery(initialPollingForElement, pollingForElement, TimeUnit.MILLISECONDS, pollingMultiplier);
 	}
 
-	@Override
-	public List<WebElement> getElementsByXPath(String xpath)
+	/**
+	 * Every command finds its element through here, whatever the kind of locator. Locators holding
+	 * their elements need no lookup.
+	 */
+	private WebElement resolveElement(Using locator)
 	{
-		return fluentWaitForElementsXPath(xpath);
+		if (locator.holdsElements()) return locator.elements().get(0);
+		try
+		{
+			return fluentWaitForElement(locator.scriptKind(), (String) locator.scriptExpression(), locator.by());
+		}
+		catch (InvalidSelectorException e)
+		{
+			return resolveElement(fallback(locator, e));
+		}
 	}
 
-	@Override
-	public String getElementAttributeByXPath(String attribute, String xpath)
+	private List<WebElement> resolveElements(Using locator)
 	{
-		WebElement element = fluentWaitForElementXPath(xpath);
-		return element.getAttribute(attribute);
+		if (locator.holdsElements()) return locator.elements();
+		try
+		{
+			return fluentWaitForElements(locator.by());
+		}
+		catch (InvalidSelectorException e)
+		{
+			return resolveElements(fallback(locator, e));
+		}
 	}
 
-	@Override
-	public String getTextByXPath(String xpath)
+	/**
+	 * Waits up to the time given for the element, returning null if it never appears. Nothing is
+	 * thrown on the way: each poll checks whether findElements came back empty.
+	 */
+	private WebElement tryResolveElement(Using locator, long millis)
 	{
-		WebElement element = fluentWaitForElementXPath(xpath);
-		return element.getText();
+		if (millis <= 0 || locator.holdsElements()) return findElementNow(locator);
+
+		WebElement element = resolutions.getElement(locator.by());
+		if (element != null) return element;
+		long timeout = waitTimeout(millis);
+		try
+		{
+			element = wait.poll(findElement.target(locator.by()), timeout, TimeUnit.MILLISECONDS);
+		}
+		catch (InvalidSelectorException e)
+		{
+			return tryResolveElement(fallback(locator, e), millis);
+		}
+		if (element == null && timeout < millis) throw deadlineExceeded(null);
+		if (element != null) resolutions.putElement(locator.by(), element);
+		return element;
 	}
 
-	@Override
-	public SeleniumCommands enterWebFrameByXPath(String xpath)
+	/**
+	 * Looks for the element exactly once. A held element is present for as long as it is still
+	 * attached to the page.
+	 */
+	private WebElement findElementNow(Using locator)
 	{
-		WebElement element = fluentWaitForElementXPath(xpath);
-		driver.switchTo().frame(element);
-		return this;
-	}
+		if (locator.holdsElements())
+		{
+			WebElement element = locator.elements().get(0);
+			try
+			{
+				element.isEnabled();
+				return element;
+			}
+			catch (StaleElementReferenceException e)
+			{
+				return null;
+			}
+		}
 
+		WebElement element = resolutions.getElement(locator.by());
+		if (element != null) return element;
+		try
+		{
+			element = findElement.target(locator.by()).apply(driver);
+		}
+		catch (InvalidSelectorException e)
+		{
+			return findElementNow(fallback(locator, e));
+		}
+		if (element != null) resolutions.putElement(locator.by(), element);
+		return element;
+	}
 
-	/*===================================================================
-	 *
-	 * ByWebElement functions
-	 *
-	 *===================================================================*/
+	/**
+	 * @return The locator as written, for a rewritten locator the browser rejected
+	 * @throws WebDriverException the failure itself when there is nothing to fall back to
+	 */
+	private Using fallback(Using locator, WebDriverException failure)
+	{
+		if (locator.fallback() == null || !isSelectorRejected(failure)) throw failure;
+		logger.warn("Rewritten " + locator + " was rejected, using it as written: " + failure.getMessage());
+		return locator.fallback();
+	}
 
-	@Override
-	public SeleniumCommands clickElementByWebElement(WebElement element)
+	/**
+	 * Waits for the element at the locator, unless the current command already resolved it. The kind
+	 * and expression describe the same locator as the {@link By} for use by in page scripts.
+	 */
+	private WebElement fluentWaitForElement(String kind, String expression, By by)
 	{
-		fluentWaitForVisibilityOfElement(element);
-		new Actions(driver).moveToElement(element).perform();
-		element.click();
-		return this;
+		WebElement element = resolutions.getElement(by);
+		if (element != null) return element;
+
+		element = (waitStrategy == WaitStrategy.MUTATION_OBSERVER)
+				? observeForElement(kind, expression, by)
+				: pollForElement(by);
+		resolutions.putElement(by, element);
+		return element;
 	}
 
-	@Override
-	public SeleniumCommands clickRandomElementByWebElement(List<WebElement> elements)
+	private WebElement pollForElement(By by)
 	{
-		return clickRandom(elements);
+		return Wait().until(findElement.target(by));
 	}
 
-	@Override
-	public SeleniumCommands checkBoxByWebElement(boolean selected, WebElement element)
+	/**
+	 * Waits for the element with a single asynchronous script that watches the page for changes,
+	 * falling back to polling for the rest of the wait if the browser cannot observe the page or the
+	 * page unloads mid wait.
+	 */
+	private WebElement observeForElement(String kind, String expression, By by)
 	{
-		if (selected != element.isSelected())
+		long timeout = waitTimeout(waitForElement);
+		long started = System.nanoTime();
+		Object result;
+		try
 		{
-			clickElementByWebElement(element);
+			setScriptTimeout();
+			resolutions.recordFind();
+			result = ((JavascriptExecutor) driver).executeAsyncScript(
+					PageScripts.WAIT_FOR_ELEMENT, kind, expression, timeout);
 		}
-		return this;
+		catch (WebDriverException e)
+		{
+			logger.debug("Observed wait failed, polling instead: " + e.getMessage());
+			return untilRestOfWait(findElement.target(by), started);
+		}
+
+		if (result instanceof WebElement) return (WebElement) result;
+		if (Boolean.FALSE.equals(result)) return untilRestOfWait(findElement.target(by), started);
+		TimeoutException timedOut = new TimeoutException("Timed out after " + timeout + " milliseconds: " + timeoutMessage);
+		throw (timeout < waitForElement) ? deadlineExceeded(timedOut) : timedOut;
 	}
 
-	@Override
-	public SeleniumCommands typeByWebElement(String input, WebElement element)
+	/**
+	 * The asynchronous wait must be allowed to outlive its own timeout so that it, and not the driver,
+	 * decides when the wait is over. Only calls the driver when the timeout needs to change. Selenium
+	 * cannot read the previous script timeout back, so it is left raised; see
+	 * {@link WaitStrategy#MUTATION_OBSERVER}.
+	 */
+	private void setScriptTimeout()
 	{
-		fluentWaitForVisibilityOfElement(element);
-		element.clear();
-		element.sendKeys(input + "\t");
-		return this;
+		long timeout = waitForElement + TimeUnit.SECONDS.toMillis(1);
+		if (scriptTimeout != timeout)
+		{
+			driver.manage().timeouts().setScriptTimeout(timeout, TimeUnit.MILLISECONDS);
+			scriptTimeout = timeout;
+		}
 	}
 
-	@Override
-	public SeleniumCommands comboBoxVisibleTextByWebElement(String visibleText, WebElement element)
+	/**
+	 * Waits for the elements at the locator, unless the current command already resolved them.
+	 */
+	private List<WebElement> fluentWaitForElements(By by)
 	{
-		Select comboBox = new Select(element);
-		comboBox.selectByVisibleText(visibleText);
-		return this;
+		List<WebElement> elements = resolutions.getElements(by);
+		if (elements != null) return elements;
+
+		elements = Wait().until(findElements.target(by));
+		resolutions.putElements(by, elements);
+		return elements;
 	}
 
-	@Override
-	public SeleniumCommands comboBoxRandomByWebElement(WebElement element)
+	/**
+	 * Finds the first displayed and enabled element at the locator and scrolls it into view, all in
+	 * one script call per poll, so the element returned is ready to click.
+	 */
+	private WebElement fluentWaitForClickable(Using locator)
 	{
-		return comboBoxSelectRandom(new Select(element));
+		long started = System.nanoTime();
+		try
+		{
+			return fluentWaitForClickable(locator.scriptKind(), locator.scriptExpression());
+		}
+		catch (TimeoutException e)
+		{
+			throw e;
+		}
+		catch (WebDriverException e)
+		{
+			//A selector the browser rejects fails the script rather than the find
+			Using written = fallback(locator, e);
+			return untilRestOfWait(findClickable.target(written.scriptKind(), written.scriptExpression()), started);
+		}
 	}
 
-	@Override
-	public SeleniumCommands comboBoxIndexByWebElement(int index, WebElement element)
+	private WebElement fluentWaitForClickable(String kind, Object expression)
 	{
-		Select comboBox = new Select(element);
-		comboBox.selectByIndex(index);
-		return this;
+		return Wait().until(findClickable.target(kind, expression));
 	}
 
-	@Override
-	public String comboBoxGetDisplayTextByWebElement(WebElement element)
+	/**
+	 * Waits for a {@link PageScripts} check taking the locator's kind and expression to pass.
+	 */
+	private void waitForPage(String script, Using locator)
 	{
-		return new Select(element).getFirstSelectedOption().getText();
+		long started = System.nanoTime();
+		try
+		{
+			Wait().until(pageCheck.target(script, locator.scriptKind(), locator.scriptExpression()));
+		}
+		catch (StaleElementReferenceException e)
+		{
+			//A held element the driver no longer knows has left the page, so is neither there nor visible
+			if (!locator.holdsElements()) throw e;
+		}
+		catch (TimeoutException e)
+		{
+			throw e;
+		}
+		catch (WebDriverException e)
+		{
+			Using written = fallback(locator, e);
+			untilRestOfWait(pageCheck.target(script, written.scriptKind(), written.scriptExpression()), started);
+		}
 	}
 
-	@Override
-	public int comboBoxGetDisplayIndexByWebElement(WebElement element)
+	/**
+	 * Waits for a {@link PageScripts} check taking parallel lists of locator kinds and expressions to
+	 * pass, so any number of locators cost one script call per poll. Any further arguments are passed
+	 * to the script after the two lists.
+	 *
+	 * @return What the script returned once it passed
+	 */
+	private Object waitForLocators(String script, Using[] locators, Object... extraArgs)
 	{
-		String text = comboBoxGetDisplayTextByWebElement(element);
-		return getComboBoxIndexFromText(text, element);
+		if (locators == null || locators.length == 0) throw new IllegalArgumentException("At least one locator is required");
+		long started = System.nanoTime();
+		try
+		{
+			return Wait().until(pageCheck.target(script, locatorArgs(locators, extraArgs)));
+		}
+		catch (TimeoutException e)
+		{
+			throw e;
+		}
+		catch (WebDriverException e)
+		{
+			return untilRestOfWait(pageCheck.target(script, locatorArgs(fallback(locators, e), extraArgs)), started);
+		}
 	}
 
-	@Override
-	public List<WebElement> comboBoxGetOptionsByWebElement(WebElement element)
+	/**
+	 * @return The parallel lists of locator kinds and expressions followed by the further arguments
+	 */
+	private static Object[] locatorArgs(Using[] locators, Object[] extraArgs)
 	{
-		return new Select(element).getOptions();
+		List<String> kinds = new ArrayList<String>(locators.length);
+		List<Object> expressions = new ArrayList<Object>(locators.length);
+		for (Using locator : locators)
+		{
+			if (locator == null) throw new NullPointerException("Locators must not be Null");
+			kinds.add(locator.scriptKind());
+			expressions.add(locator.scriptExpression());
+		}
+
+		Object[] args = new Object[extraArgs.length + 2];
+		args[0] = kinds;
+		args[1] = expressions;
+		System.arraycopy(extraArgs, 0, args, 2, extraArgs.length);
+		return args;
 	}
 
-	@Override
-	public SeleniumCommands waitForWebElement(WebElement element)
+	/**
+	 * @return The locators with every rewritten one replaced by the locator as written
+	 * @throws WebDriverException the failure itself when none of them were rewritten
+	 */
+	private Using[] fallback(Using[] locators, WebDriverException failure)
 	{
-		fluentWaitForElementXPath(getElementXPath(element));
-		return this;
+		if (!isSelectorRejected(failure)) throw failure;
+		Using[] written = locators.clone();
+		boolean rewritten = false;
+		for (int i=0; i < written.length; i++)
+		{
+			if (written[i].fallback() != null)
+			{
+				written[i] = written[i].fallback();
+				rewritten = true;
+			}
+		}
+		if (!rewritten) throw failure;
+		logger.warn("Rewritten locators were rejected, using them as written: " + failure.getMessage());
+		return written;
 	}
 
-	@Override
-	public List<WebElement> getElementsByWebElement(WebElement element)
+	/**
+	 * Whether the browser refused a selector as invalid, the only failure a rewritten locator falls back
+	 * on. Drivers report a selector rejected inside a page script as a script error, so the browser's
+	 * own wording is looked for too. Anything else, such as a stale element or an open alert, would fail
+	 * the locator as written just the same.
+	 */
+	private static boolean isSelectorRejected(WebDriverException failure)
 	{
-		ArrayList<WebElement> elementList = new ArrayList<WebElement>();
-		elementList.add(element);
-		return elementList;
+		if (failure instanceof InvalidSelectorException) return true;
+		String message = failure.getMessage();
+		return message != null && (message.contains("SyntaxError") || message.contains("is not a valid selector") ||
+				message.contains("is not a valid XPath expression") || message.contains("not a legal expression"));
 	}
 
-	@Override
-	public WebElement getElementByWebElement(WebElement element)
+	/**
+	 * Waits for whatever is left of a wait that started at the time given, capped by the deadline, so
+	 * a retry within a wait does not start it over. The condition is still checked at least once.
+	 *
+	 * @param started When the wait started, from {@link System#nanoTime()}
+	 */
+	private <T> T untilRestOfWait(Function<? super WebDriver, T> isTrue, long started)
 	{
-		return element;
+		long left = Math.max(0, waitForElement - TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+		long timeout = waitTimeout(left);
+		try
+		{
+			return wait.until(isTrue, timeout, TimeUnit.MILLISECONDS);
+		}
+		catch (TimeoutException e)
+		{
+			throw (timeout < left) ? deadlineExceeded(e) : e;
+		}
 	}
 
-	@Override
-	public int getElementCountByWebElement(WebElement element)
+	/**
+	 * Describes several locators without rendering them until the command is described
+	 */
+	private static Object describe(Using[] locators)
 	{
-		return 1;
+		return (locators == null) ? null : Arrays.asList(locators);
 	}
 
-	@Override
-	public String getElementAttributeByWebElement(String attribute, WebElement element)
-	{
-		return element.getAttribute(attribute);
+	/**
+	 * Sends the steps to {@link PageScripts#BATCH} in one call.
+	 *
+	 * @return How many steps the script did followed by why it stopped, null if it did them all
+	 */
+	@SuppressWarnings("unchecked")
+	private List<Object> runBatchScript(List<Batch.Step> steps)
+	{
+		List<String> kinds = new ArrayList<String>(steps.size());
+		List<Object> expressions = new ArrayList<Object>(steps.size());
+		List<String> actions = new ArrayList<String>(steps.size());
+		List<Object> values = new ArrayList<Object>(steps.size());
+		for (Batch.Step step : steps)
+		{
+			kinds.add(step.locator().scriptKind());
+			expressions.add(step.locator().scriptExpression());
+			actions.add(step.action());
+			values.add(step.value());
+		}
+		resolutions.recordFind();
+		return (List<Object>) ((JavascriptExecutor) driver).executeScript(
+				PageScripts.BATCH, kinds, expressions, actions, values);
 	}
 
-	@Override
-	public String getTextByWebElement(WebElement element)
+	/**
+	 * Does a step the script could not the way its native command would, but as part of the batch,
+	 * so its finds are counted under runBatch. A failure is recorded so the rest of the batch can still
+	 * run, unless the scenario is out of time.
+	 */
+	private BatchReport.StepResult runBatchStepNatively(Batch.Step step, String reason)
 	{
-		return element.getText();
+		if (logger.isDebugEnabled()) logger.debug(step + " is run natively since " + reason);
+		//The script's input and change events may have rebuilt elements resolved for an earlier step
+		resolutions.clear();
+		try
+		{
+			String action = step.action();
+			if (action.equals("type")) typeInto((String) step.value(), step.locator());
+			else if (action.equals("check")) setCheckBox((Boolean) step.value(), step.locator());
+			else comboBoxSelectText((String) step.value(), step.locator());
+			return new BatchReport.StepResult(step, BatchReport.Outcome.NATIVE, reason, null);
+		}
+		catch (DeadlineExceededException e)
+		{
+			throw e;
+		}
+		catch (WebDriverException e)
+		{
+			return new BatchReport.StepResult(step, BatchReport.Outcome.FAILED, reason, e);
+		}
 	}
 
-	@Override
-	public SeleniumCommands enterWebFrameByWebElement(WebElement element)
+	private WebElement getFirstVisibleElement(List<WebElement> elements)
 	{
-		driver.switchTo().frame(element);
-		return this;
-	}
+		List<WebElement> visibleElements = filterVisibleElements(elements, true);
 
+		if (visibleElements.isEmpty())
+		{
+			throw new ElementNotVisibleException("Element is not currently visible and so may not be interacted with");
+		}
 
-	/*===================================================================
-	 *
-	 * Private Class functions
-	 *
-	 *===================================================================*/
+		return visibleElements.get(0);
+	}
 
-	private Wait<WebDriver> Wait()
+	private List<WebElement> getAllVisibleElements(List<WebElement> elements)
 	{
-		return new FluentWait<WebDriver>(driver)
-				.withMessage(lastCommand + " on " + currentUrl)
-				.withTimeout(waitForElement, TimeUnit.SECONDS)
-				.pollingEvery(pollingForElement, TimeUnit.SECONDS)
-				.ignoring(NoSuchElementException.class);
+		List<WebElement> visibleElements = filterVisibleElements(elements, false);
+
+		if (visibleElements.isEmpty())
+		{
+			throw new ElementNotVisibleException("Element is not currently visible and so may not be interacted with");
+		}
+
+		return visibleElements;
 	}
 
-	private WebElement fluentWaitForElementXPath(final String xpath)
+	/**
+	 * Sends every candidate to the browser in one script call and gets back the visible ones, rather
+	 * than calling {@link WebElement#isDisplayed()} on each element in turn.
+	 *
+	 * @param elements The candidates to filter
+	 * @param firstOnly true to stop at the first visible element
+	 * @return The visible elements in their original order
+	 */
+	@SuppressWarnings("unchecked")
+	private List<WebElement> filterVisibleElements(List<WebElement> elements, boolean firstOnly)
 	{
-		return Wait().until(new Function<WebDriver, WebElement>()
-		{
-			@Override
-			public WebElement apply(WebDriver d)
-			{
-				return d.findElement(By.xpath(xpath));
-			}
-		});
+		if (elements == null || elements.isEmpty()) return new ArrayList<WebElement>();
+
+		List<WebElement> visibleElements = (List<WebElement>) ((JavascriptExecutor) driver).executeScript(
+				PageScripts.FILTER_DISPLAYED, elements, firstOnly);
+		return (visibleElements == null) ? new ArrayList<WebElement>() : visibleElements;
 	}
 
-	private void fluentWaitForClickableXPath(final String xpath)
+	/**
+	 * Locators holding their elements never need a lookup so are never cached.
+	 */
+	private boolean isCacheable(Using locator)
 	{
-		Wait().until(ExpectedConditions.elementToBeClickable(By.xpath(xpath)));
+		return elementCache.isEnabled() && !locator.holdsElements();
 	}
 
-	private List<WebElement> fluentWaitForElementsXPath(final String xpath)
+	private WebElement getCachedElement(Using locator)
 	{
-		return Wait().until(new Function<WebDriver, List<WebElement>>()
+		if (!isCacheable(locator)) return resolveElement(locator);
+
+		WebElement element = elementCache.get(locator);
+		if (element == null)
 		{
-			@Override
-			public List<WebElement> apply(WebDriver d)
-			{
-				return d.findElements(By.xpath(xpath));
-			}
-		});
+			element = resolveElement(locator);
+			elementCache.put(locator, element);
+		}
+		return element;
 	}
 
-	private WebElement fluentWaitForElementCss(final String css)
+	/**
+	 * Like {@link #getCachedElement(Using)} for elements handed back to the caller, who cannot retry on
+	 * a stale element the way our own reads do. A click or type may have navigated since the element
+	 * was cached, so a hit is checked with one cheap call first and found again if it went stale.
+	 */
+	private WebElement getLiveCachedElement(Using locator)
 	{
-		return Wait().until(new Function<WebDriver, WebElement>()
+		if (!isCacheable(locator)) return resolveElement(locator);
+
+		WebElement element = elementCache.get(locator);
+		if (element != null)
 		{
-			@Override
-			public WebElement apply(WebDriver d)
+			try
 			{
-				return d.findElement(By.cssSelector(css));
+				element.isEnabled();
+				return element;
+			}
+			catch (StaleElementReferenceException e)
+			{
+				elementCache.remove(locator);
 			}
-		});
+		}
+		element = resolveElement(locator);
+		elementCache.put(locator, element);
+		return element;
 	}
 
-	private List<WebElement> fluentWaitForElementsCss(final String css)
+	/**
+	 * Called before the driver navigates or moves to another window or frame. Anything resolved so
+	 * far belongs to the old context.
+	 */
+	private void contextChanged()
 	{
-		return Wait().until(new Function<WebDriver, List<WebElement>>()
-		{
-			@Override
-			public List<WebElement> apply(WebDriver d)
-			{
-				return d.findElements(By.cssSelector(css));
-			}
-		});
+		resolutions.clear();
+		elementCache.clear();
 	}
 
-	private void fluentWaitForClickableCss(final String css)
+	private WebElement fluentWaitForVisibilityOfElement(WebElement element)
 	{
-		Wait().until(ExpectedConditions.elementToBeClickable(By.cssSelector(css)));
+		return Wait().until(visible.target(element));
 	}
 
-	private WebElement fluentWaitForElementId(final String id)
+	/**
+	 * Starts a new command. The description is only rendered if debug logging is on or the command
+	 * fails, so the arguments are passed separately from the pattern rather than concatenated.
+	 *
+	 * @param command The method name the command is counted under
+	 * @param pattern A {@link String#format(String, Object...)} pattern describing the command
+	 * @param args The arguments for the pattern
+	 */
+	private void setLastCommand(String command, String pattern, Object... args)
 	{
-		return Wait().until(new Function<WebDriver, WebElement>()
-		{
-			@Override
-			public WebElement apply(WebDriver d)
-			{
-				return d.findElement(By.id(id));
-			}
-		});
+		resolutions.begin(command);
+		CommandDescriptor lastCommand = new CommandDescriptor(command, pattern, args);
+		context.set(context.get().withLastCommand(lastCommand));
+		if (deadline != null) deadline.begin(this, lastCommand);
+		if (logger.isDebugEnabled()) logger.debug(lastCommand);
 	}
 
-	private List<WebElement> fluentWaitForElementsId(final String id)
+	private void setCurrentUrl()
 	{
-		return Wait().until(new Function<WebDriver, List<WebElement>>()
+		if (lazyUrlTracking)
 		{
-			@Override
-			public List<WebElement> apply(WebDriver d)
-			{
-				return d.findElements(By.id(id));
-			}
-		});
+			savedUrlLookups++;
+			return;
+		}
+		recordUrl(driver.getCurrentUrl());
 	}
 
-	private void fluentWaitForClickableId(final String id)
+	/**
+	 * Records the url we just navigated to, or null when the driver moved somewhere we cannot name
+	 * without asking it.
+	 */
+	private void recordUrl(String url)
 	{
-		Wait().until(ExpectedConditions.elementToBeClickable(By.id(id)));
+		context.set(context.get().withCurrentUrl(url));
 	}
 
-	private WebElement getFirstVisibleElement(List<WebElement> elements)
+	/**
+	 * With lazy url tracking the driver is only asked for the url here, while building a failure
+	 * message, since a click may have navigated since the url was last recorded.
+	 */
+	private String describeCurrentUrl()
 	{
-		for (WebElement element : elements)
+		String currentUrl = context.get().getCurrentUrl();
+		if (!lazyUrlTracking) return currentUrl;
+		try
 		{
-			if (element.isDisplayed())
-			{
-				return element;
-			}
+			String url = driver.getCurrentUrl();
+			savedUrlLookups--;
+			return url;
+		}
+		catch (WebDriverException e)
+		{
+			return (currentUrl == null) ? "[unknown url]" : currentUrl;
 		}
-
-		throw new ElementNotVisibleException("Element is not currently visible and so may not be interacted with");
 	}
 
-	private List<WebElement> getAllVisibleElements(List<WebElement> elements)
+	private SeleniumCommands clickRandomElement(Using locator)
 	{
-		List<WebElement> visibleElements = new ArrayList<WebElement>();
-
-		for (WebElement element : elements)
-		{
-			if (element.isDisplayed())
-			{
-				visibleElements.add(element);
-			}
-		}
+		resolveElement(locator);
+		return clickRandom(getAllVisibleElements(resolveElements(locator)));
+	}
 
-		if (visibleElements.isEmpty())
+	private SeleniumCommands setCheckBox(boolean selected, Using locator)
+	{
+		WebElement element = resolveElement(locator);
+		if (selected != element.isSelected())
 		{
-			throw new ElementNotVisibleException("Element is not currently visible and so may not be interacted with");
+			fluentWaitForClickable(PageScripts.ELEMENTS, Collections.singletonList(element)).click();
 		}
-
-		return visibleElements;
+		return this;
 	}
 
-	private WebElement fluentWaitForVisibilityOfElement(WebElement element)
+	private SeleniumCommands typeInto(String input, Using locator)
 	{
-		return Wait().until(ExpectedConditions.visibilityOf(element));
+		if (input == null) throw new NullPointerException("String input must not be Null");
+		List<WebElement> candidates = resolveElements(locator);
+		WebElement element;
+		if (candidates.size() > 1)
+			element = getFirstVisibleElement(candidates);
+		else if (candidates.size() == 1)
+			element = candidates.get(0);
+		else
+			element = resolveElement(locator);
+		fluentWaitForVisibilityOfElement(element);
+		element.clear();
+		element.sendKeys(input + "\t");
+		return this;
 	}
 
-	private synchronized void setLastCommand(String lastCommand)
+	/**
+	 * Selects from the first visible select at the locator. A select that was handed to us is used as
+	 * it is, so hidden selects behind styled drop downs can still be set.
+	 */
+	private SeleniumCommands comboBoxSelectText(String visibleText, Using locator)
 	{
-		this.lastCommand = lastCommand;
-		logger.debug(lastCommand);
+		if (visibleText == null) throw new NullPointerException("String visibleText must not be Null");
+		WebElement element = locator.holdsElements()
+				? locator.elements().get(0)
+				: getFirstVisibleElement(resolveElements(locator));
+		selectByVisibleText(visibleText, element);
+		return this;
 	}
 
-	private synchronized void setCurrentUrl()
+	private void enterFrame(Using locator)
 	{
-		currentUrl = driver.getCurrentUrl();
+		WebElement element = resolveElement(locator);
+		contextChanged();
+		driver.switchTo().frame(element);
 	}
 
 	private SeleniumCommands clickRandom(List<WebElement> elements)
@@ -1237,18 +1982,70 @@ public class Commands implements SeleniumCommands, ByXPath, ByCSS, ByID, ByWebEl
 		}
 	}
 
-	private int getComboBoxIndexFromText(String option, WebElement select)
+	private int getSelectedIndex(WebElement select)
+	{
+		return ((Number) getSelectedOption(select).get(0)).intValue();
+	}
+
+	private String getSelectedText(WebElement select)
+	{
+		return (String) getSelectedOption(select).get(1);
+	}
+
+	/**
+	 * Reads the selected index and its visible text in a single script call instead of walking the
+	 * options one round trip at a time.
+	 *
+	 * @return The selected index followed by the visible text of that option
+	 */
+	@SuppressWarnings("unchecked")
+	private List<Object> getSelectedOption(WebElement select)
+	{
+		List<Object> selected = (List<Object>) ((JavascriptExecutor) driver).executeScript(
+				PageScripts.SELECTED_OPTION, select);
+		if (((Number) selected.get(0)).intValue() < 0) throw new NoSuchElementException("No options are selected");
+		return selected;
+	}
+
+	/**
+	 * Reads the value, text and state of every option in one script call.
+	 */
+	@SuppressWarnings("unchecked")
+	private ComboBoxOptions getOptionSnapshot(WebElement select)
+	{
+		List<List<Object>> snapshot = (List<List<Object>>) ((JavascriptExecutor) driver).executeScript(
+				PageScripts.OPTION_SNAPSHOT, select);
+		List<Object> values = snapshot.get(0);
+		List<Object> texts = snapshot.get(1);
+		List<Object> flags = snapshot.get(2);
+
+		int size = texts.size();
+		String[] optionValues = new String[size];
+		String[] optionTexts = new String[size];
+		BitSet selected = new BitSet(size);
+		BitSet disabled = new BitSet(size);
+		for (int i=0; i < size; i++)
+		{
+			optionValues[i] = String.valueOf(values.get(i));
+			optionTexts[i] = String.valueOf(texts.get(i));
+			int flag = ((Number) flags.get(i)).intValue();
+			selected.set(i, (flag & 1) != 0);
+			disabled.set(i, (flag & 2) != 0);
+		}
+		return new ComboBoxOptions(optionValues, optionTexts, selected, disabled);
+	}
+
+	/**
+	 * Selects the option by its visible text in one script call, firing the same input and change
+	 * events a user selection would.
+	 */
+	private void selectByVisibleText(String visibleText, WebElement select)
 	{
-		List<WebElement> options = new Select(select).getOptions();
-		for (int i=0; i < options.size(); i++)
+		Boolean matched = (Boolean) ((JavascriptExecutor) driver).executeScript(
+				PageScripts.SELECT_BY_TEXT, select, visibleText);
+		if (!Boolean.TRUE.equals(matched))
 		{
-			if (options.get(i).getText().equals(option))
-			{
-				return i;
-			}
+			throw new NoSuchElementException("Cannot locate option with text: " + visibleText);
 		}
-		//Exception should never be thrown
-		throw new WebDriverException(
-				"Unable to find index of '" + option + "' in WebElement: " + getElementXPath(select));
 	}
-}
\ No newline at end of file
+}
@@ -0,0 +1,13 @@
+package org.qa.selenium;
+
+/**
+ * Thrown when a thread runs a command on a {@link Commands} session while another thread is still in
+ * the middle of one. A session may be handed between threads, but only runs one command at a time.
+ */
+public class ConcurrentSessionException extends IllegalStateException
+{
+	public ConcurrentSessionException(String message)
+	{
+		super(message);
+	}
+}
@@ -0,0 +1,191 @@
+package org.qa.selenium;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Builds a condition over one or more locators for {@link SeleniumCommands#waitUntil(Condition)}.
+ * However many checks it holds, the whole condition is tested by a single in page script per poll.
+ *
+ * <pre>
+ *   Condition.element(Using.ID("status")).visible().textContains("Saved")
+ *            .and(Using.CSS(".spinner")).absent()
+ * </pre>
+ *
+ * Each locator is met when any one element it finds passes every check added after it, or, once
+ * {@link #absent()} is called, when none does. The condition is met when every locator is. Text is
+ * compared with its white space collapsed, as it is displayed.
+ */
+public final class Condition
+{
+	private final List<Using> locators = new ArrayList<Using>();
+	private final List<Boolean> absent = new ArrayList<Boolean>();
+	private final List<List<List<String>>> checks = new ArrayList<List<List<String>>>();
+	private final List<List<String>> descriptions = new ArrayList<List<String>>();
+
+	private Condition()
+	{
+	}
+
+	/**
+	 * @param locator The first locator of the condition
+	 * @return A condition, met once the locator finds an element, to add checks to
+	 */
+	public static Condition element(Using locator)
+	{
+		return new Condition().and(locator);
+	}
+
+	/**
+	 * Adds another locator which must also be met. Checks added from now on apply to it.
+	 */
+	public Condition and(Using locator)
+	{
+		if (locator == null) throw new NullPointerException("Using locator must not be Null");
+		locators.add(locator);
+		absent.add(Boolean.FALSE);
+		checks.add(new ArrayList<List<String>>());
+		descriptions.add(new ArrayList<String>());
+		return this;
+	}
+
+	/**
+	 * Turns the current locator around: it is met while no element it finds passes its checks.
+	 */
+	public Condition absent()
+	{
+		absent.set(current(), Boolean.TRUE);
+		return this;
+	}
+
+	public Condition visible()
+	{
+		return check("is visible", "visible");
+	}
+
+	public Condition hidden()
+	{
+		return check("is hidden", "hidden");
+	}
+
+	public Condition enabled()
+	{
+		return check("is enabled", "enabled");
+	}
+
+	public Condition disabled()
+	{
+		return check("is disabled", "disabled");
+	}
+
+	/**
+	 * Checked check boxes and radio buttons, and selected options
+	 */
+	public Condition selected()
+	{
+		return check("is selected", "selected");
+	}
+
+	public Condition textEquals(String text)
+	{
+		return check("text is '" + text + "'", "textEquals", normalize(text));
+	}
+
+	public Condition textContains(String text)
+	{
+		return check("text contains '" + text + "'", "textContains", normalize(text));
+	}
+
+	public Condition attributeEquals(String attribute, String value)
+	{
+		return check(attribute + " is '" + value + "'", "attributeEquals", require(attribute), require(value));
+	}
+
+	public Condition attributeContains(String attribute, String value)
+	{
+		return check(attribute + " contains '" + value + "'", "attributeContains", require(attribute), require(value));
+	}
+
+	/**
+	 * The current value of an input, select or text area, which may differ from its value attribute
+	 */
+	public Condition valueEquals(String value)
+	{
+		return check("value is '" + value + "'", "valueEquals", require(value));
+	}
+
+	/**
+	 * @return The locators in the order they were added
+	 */
+	Using[] locators()
+	{
+		return locators.toArray(new Using[locators.size()]);
+	}
+
+	/**
+	 * @return For each locator, whether it is met by no element passing its checks
+	 */
+	List<Boolean> absentFlags()
+	{
+		return Collections.unmodifiableList(absent);
+	}
+
+	/**
+	 * @return For each locator, its checks as an operation followed by its arguments
+	 */
+	List<List<List<String>>> checks()
+	{
+		return Collections.unmodifiableList(checks);
+	}
+
+	@Override
+	public String toString()
+	{
+		StringBuilder description = new StringBuilder();
+		for (int i=0; i < locators.size(); i++)
+		{
+			if (i > 0) description.append(" and ");
+			description.append(locators.get(i));
+			List<String> parts = descriptions.get(i);
+			if (absent.get(i))
+			{
+				description.append(parts.isEmpty() ? " is absent" : " has nothing that");
+			}
+			for (int j=0; j < parts.size(); j++)
+			{
+				description.append(j == 0 ? " " : " and ").append(parts.get(j));
+			}
+		}
+		return description.toString();
+	}
+
+	private Condition check(String description, String... operation)
+	{
+		int index = current();
+		checks.get(index).add(Arrays.asList(operation));
+		descriptions.get(index).add(description);
+		return this;
+	}
+
+	private int current()
+	{
+		return locators.size() - 1;
+	}
+
+	private static String require(String value)
+	{
+		if (value == null) throw new NullPointerException("String param must not be Null");
+		return value;
+	}
+
+	/**
+	 * Collapses whitespace as the script does. JavaScript's \s also matches non-breaking spaces,
+	 * which Java's does not.
+	 */
+	private static String normalize(String text)
+	{
+		return require(text).replaceAll("[\\s\\u00a0]+", " ").trim();
+	}
+}
@@ -0,0 +1,168 @@
+package org.qa.selenium;
+
+import org.qa.selenium.internal.CommandDescriptor;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A time budget for a whole scenario. Once handed to {@link Commands#setDeadline(Deadline)} every
+ * wait lasts no longer than whichever is shorter, its own timeout or the time left in the budget, and
+ * the first wait that runs out of budget throws a {@link DeadlineExceededException} listing how long
+ * each step took. A scenario therefore fails once its budget is spent instead of running one full
+ * timeout per remaining step.
+ *
+ * The budget starts when the deadline is created. A deadline may be shared by several
+ * {@link Commands} working on the same scenario; each one's steps are timed separately, so a session
+ * is never charged for time another session spent.
+ */
+public final class Deadline
+{
+	private final long budgetNanos;
+	private final long start;
+
+	/** The steps each session ran against the deadline, in order. Guarded by this */
+	private final Map<Object, List<Step>> sessions = new IdentityHashMap<Object, List<Step>>();
+
+	/** The sessions in the order they began their first step. Guarded by this */
+	private final List<Object> order = new ArrayList<Object>();
+
+	/**
+	 * @param budget How long the scenario may take in total
+	 * @param unit The {@link TimeUnit} of the budget
+	 */
+	public Deadline(long budget, TimeUnit unit)
+	{
+		if (unit == null) throw new NullPointerException("TimeUnit must not be Null");
+		if (budget <= 0) throw new IllegalArgumentException("Budget must be positive and greater than 0");
+		this.budgetNanos = unit.toNanos(budget);
+		this.start = System.nanoTime();
+	}
+
+	/**
+	 * @return The time left in the budget, never negative
+	 */
+	public long remaining(TimeUnit unit)
+	{
+		return unit.convert(Math.max(0, budgetNanos - (System.nanoTime() - start)), TimeUnit.NANOSECONDS);
+	}
+
+	public long elapsed(TimeUnit unit)
+	{
+		return unit.convert(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+	}
+
+	public boolean isExpired()
+	{
+		return System.nanoTime() - start >= budgetNanos;
+	}
+
+	/**
+	 * Starts a new step of the session, ending the session's step before it. Everything from one step
+	 * to the next, including time spent in the test between commands, is charged to the earlier step.
+	 *
+	 * @param session The session running the step, told apart from other sessions by identity
+	 * @param description Describes the step, only rendered if the breakdown is
+	 */
+	synchronized void begin(Object session, Object description)
+	{
+		List<Step> steps = sessions.get(session);
+		if (steps == null)
+		{
+			steps = new ArrayList<Step>();
+			sessions.put(session, steps);
+			order.add(session);
+		}
+		steps.add(new Step(description, System.nanoTime()));
+	}
+
+	/**
+	 * @param session The session that ran out of budget, whose steps make up the breakdown
+	 * @param step Describes the step that ran out of budget
+	 * @param cause The timeout that ended the step's wait, or null if it never started waiting
+	 */
+	DeadlineExceededException exceeded(Object session, Object step, Throwable cause)
+	{
+		long now = System.nanoTime();
+		List<Step> steps = new ArrayList<Step>();
+		synchronized (this)
+		{
+			if (sessions.containsKey(session)) steps.addAll(sessions.get(session));
+		}
+		//Rendered outside the lock, since describing a step may call the driver
+		StringBuilder message = new StringBuilder("Scenario budget of ")
+				.append(TimeUnit.NANOSECONDS.toMillis(budgetNanos)).append(" milliseconds ran out during ")
+				.append(step).append("\n");
+		//Runs on the session's own thread, so its steps may be described in full
+		appendBreakdown(message, steps, now, true);
+		return new DeadlineExceededException(message.toString(), cause);
+	}
+
+	/**
+	 * Safe to call from any thread. Steps are described by name unless their full description has
+	 * already been rendered by their session, since rendering one may need the session's driver.
+	 *
+	 * @return Each step so far with the milliseconds it took, one step per line, grouped by session
+	 * when the deadline is shared
+	 */
+	public synchronized String getBreakdown()
+	{
+		long now = System.nanoTime();
+		StringBuilder breakdown = new StringBuilder();
+		if (order.size() <= 1)
+		{
+			appendBreakdown(breakdown, order.isEmpty() ? new ArrayList<Step>() : sessions.get(order.get(0)), now, false);
+			return breakdown.toString();
+		}
+
+		breakdown.append("Spent ").append(elapsed(TimeUnit.MILLISECONDS)).append(" milliseconds over ")
+				.append(order.size()).append(" sessions:");
+		for (int i=0; i < order.size(); i++)
+		{
+			breakdown.append("\nSession ").append(i + 1).append(". ");
+			appendBreakdown(breakdown, sessions.get(order.get(i)), now, false);
+		}
+		return breakdown.toString();
+	}
+
+	/**
+	 * @param render Whether step descriptions may be rendered, only when called by the steps' session
+	 */
+	private void appendBreakdown(StringBuilder breakdown, List<Step> steps, long now, boolean render)
+	{
+		breakdown.append("Spent ").append(elapsed(TimeUnit.MILLISECONDS)).append(" milliseconds over ")
+				.append(steps.size()).append(" steps:");
+		for (int i=0; i < steps.size(); i++)
+		{
+			Step step = steps.get(i);
+			long end = (i + 1 < steps.size()) ? steps.get(i + 1).started : now;
+			Object description = (!render && step.description instanceof CommandDescriptor)
+					? ((CommandDescriptor) step.description).describeIfRendered()
+					: step.description;
+			breakdown.append("\n  ").append(i + 1).append(". ").append(description).append(": ")
+					.append(TimeUnit.NANOSECONDS.toMillis(end - step.started)).append("ms");
+		}
+	}
+
+	@Override
+	public String toString()
+	{
+		return "Deadline with " + remaining(TimeUnit.MILLISECONDS) + " of " +
+				TimeUnit.NANOSECONDS.toMillis(budgetNanos) + " milliseconds left";
+	}
+
+	private static final class Step
+	{
+		private final Object description;
+		private final long started;
+
+		private Step(Object description, long started)
+		{
+			this.description = description;
+			this.started = started;
+		}
+	}
+}
@@ -0,0 +1,20 @@
+package org.qa.selenium;
+
+import org.openqa.selenium.TimeoutException;
+
+/**
+ * Thrown when a wait runs out of the time left in a scenario's {@link Deadline}. The message holds
+ * the breakdown of where the budget went.
+ */
+public class DeadlineExceededException extends TimeoutException
+{
+	public DeadlineExceededException(String message)
+	{
+		super(message);
+	}
+
+	public DeadlineExceededException(String message, Throwable cause)
+	{
+		super(message, cause);
+	}
+}
@@ -0,0 +1,163 @@
+package org.qa.selenium;
+
+import org.openqa.selenium.By;
+import org.qa.selenium.internal.LocatorRegistry;
+import org.qa.selenium.internal.PageScripts;
+
+/**
+ * One kind of locator, such as XPath or CSS. A strategy knows how to check an expression, how to turn
+ * it into a Selenium {@link By}, and how to describe it to the in page scripts that {@link Commands}
+ * uses for its single round trip checks. {@link Using} asks its strategy for all of this once, when
+ * the locator is built, so every command resolves every kind of locator along the same path.
+ *
+ * New kinds are added by extending this class and building locators with
+ * {@link Using#With(LocatorStrategy, String)}. The script form must be an XPath or a CSS selector.
+ */
+public abstract class LocatorStrategy
+{
+	public static final LocatorStrategy XPATH = new LocatorStrategy("XPath")
+	{
+		@Override
+		public void validate(String expression)
+		{
+			LocatorRegistry.validateXPath(expression);
+		}
+
+		@Override
+		public By by(String expression)
+		{
+			return LocatorRegistry.xpath(expression);
+		}
+
+		@Override
+		public String scriptKind()
+		{
+			return PageScripts.XPATH;
+		}
+	};
+
+	public static final LocatorStrategy CSS = new LocatorStrategy("Css")
+	{
+		@Override
+		public By by(String expression)
+		{
+			return LocatorRegistry.css(expression);
+		}
+
+		@Override
+		public String scriptKind()
+		{
+			return PageScripts.CSS;
+		}
+	};
+
+	public static final LocatorStrategy ID = new LocatorStrategy("ID")
+	{
+		@Override
+		public By by(String expression)
+		{
+			return LocatorRegistry.id(expression);
+		}
+
+		@Override
+		public String scriptKind()
+		{
+			return PageScripts.CSS;
+		}
+
+		@Override
+		public String scriptExpression(String expression)
+		{
+			return LocatorRegistry.idSelector(expression);
+		}
+	};
+
+	public static final LocatorStrategy NAME = new LocatorStrategy("Name")
+	{
+		@Override
+		public By by(String expression)
+		{
+			return By.name(expression);
+		}
+
+		@Override
+		public String scriptKind()
+		{
+			return PageScripts.CSS;
+		}
+
+		@Override
+		public String scriptExpression(String expression)
+		{
+			return PageScripts.attributeSelector("name", expression);
+		}
+	};
+
+	public static final LocatorStrategy LINK_TEXT = new LocatorStrategy("LinkText")
+	{
+		@Override
+		public By by(String expression)
+		{
+			return By.linkText(expression);
+		}
+
+		@Override
+		public String scriptKind()
+		{
+			return PageScripts.XPATH;
+		}
+
+		@Override
+		public String scriptExpression(String expression)
+		{
+			return "//a[normalize-space(.)=" + PageScripts.xpathLiteral(expression.trim()) + "]";
+		}
+	};
+
+	private final String name;
+
+	protected LocatorStrategy(String name)
+	{
+		if (name == null) throw new NullPointerException("Strategy name must not be Null");
+		this.name = name;
+	}
+
+	/**
+	 * @return The name used when describing locators of this kind, such as "XPath"
+	 */
+	public final String getName()
+	{
+		return name;
+	}
+
+	/**
+	 * Checks the expression when a locator is built, throwing if it can never match anything.
+	 */
+	public void validate(String expression)
+	{
+	}
+
+	/**
+	 * @return The {@link By} WebDriver uses to find the expression
+	 */
+	public abstract By by(String expression);
+
+	/**
+	 * @return {@link PageScripts#XPATH} or {@link PageScripts#CSS}, the form of {@link #scriptExpression(String)}
+	 */
+	public abstract String scriptKind();
+
+	/**
+	 * @return The expression rewritten as an XPath or CSS selector, as named by {@link #scriptKind()}
+	 */
+	public String scriptExpression(String expression)
+	{
+		return expression;
+	}
+
+	@Override
+	public String toString()
+	{
+		return name;
+	}
+}
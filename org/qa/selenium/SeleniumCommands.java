@@ -17,10 +17,9 @@ public interface SeleniumCommands
 	/**
 	 * Looks for any {@link WebElement}s using the given locator. Initially we start a FluentWait using
 	 * default times (unless overridden by {@link SeleniumCommands#setFluentWaitTime(Integer,
-	 * TimeUnit, Integer, TimeUnit)}. If one element is found we check that it is visible to the user
-	 * before calling a new {@link org.openqa.selenium.interactions.Actions} event to move the mouse
-	 * over the {@link WebElement] and then send a click command. If more then one element is found we
-	 * iterate through them looking for the first visiable which we click.
+	 * TimeUnit, Integer, TimeUnit)}. Each poll is a single script call that looks for the first
+	 * element at the locator that is visible and enabled, scrolls it into view and returns it, after
+	 * which we send the click command. If more then one element is found the first visible one is clicked.
 	 *
 	 * @param locator The locator of type {@link Using#XPath(String)}, {@link Using#CSS(String)}, or
 	 * {@link Using#ID(String)}
@@ -49,19 +48,167 @@ public interface SeleniumCommands
 	public SeleniumCommands comboBoxByIndex(int index, Using locator);
 	public SeleniumCommands comboBoxRandom(Using locator);
 	public List<WebElement> comboBoxGetOptions(Using locator);
+
+	/**
+	 * Reads the index, value, visible text, selected and disabled state of every option of the
+	 * &lt;select&gt; at the locator in a single call. Prefer this over {@link
+	 * SeleniumCommands#comboBoxGetOptions(Using)} when reading the text or value of many options, since
+	 * every call on a returned option {@link WebElement} is another round trip.
+	 *
+	 * @param locator The locator of the &lt;select&gt; element
+	 * @return An immutable {@link ComboBoxOptions} snapshot of the options
+	 */
+	public ComboBoxOptions comboBoxGetOptionSnapshot(Using locator);
+
 	public String comboBoxGetDisplayText(Using locator);
 	public int comboBoxGetDisplayIndex(Using locator);
 	public SeleniumCommands waitForElement(Using locator);
 	public SeleniumCommands waitForElement(Using locator, String elementName);
+
+	/**
+	 * Waits until nothing at the locator is on the page, such as a spinner that has been removed.
+	 * Returns as soon as a single in page check finds nothing, including straight away.
+	 *
+	 * @param locator The {@link Using} locator to wait on
+	 * @return The {@link Commands} object with our {@link org.openqa.selenium.WebDriver} instance
+	 */
+	public SeleniumCommands waitForAbsence(Using locator);
+
+	/**
+	 * Waits until nothing at the locator is displayed, such as an overlay that has been hidden or
+	 * removed. Returns as soon as a single in page check finds nothing visible, including straight away.
+	 *
+	 * @param locator The {@link Using} locator to wait on
+	 * @return The {@link Commands} object with our {@link org.openqa.selenium.WebDriver} instance
+	 */
+	public SeleniumCommands waitForInvisibility(Using locator);
+
+	/**
+	 * Waits until any one of the locators finds an element, checking all of them in a single in page
+	 * script per poll. Useful when a page may end up in one of several states, such as showing either
+	 * a success banner or a list of errors.
+	 *
+	 * @param locators The {@link Using} locators to wait on
+	 * @return The first of the locators, in the order given, that found an element
+	 */
+	public Using waitForAny(Using... locators);
+
+	/**
+	 * Waits until every one of the locators finds an element, checking all of them in a single in page
+	 * script per poll.
+	 *
+	 * @param locators The {@link Using} locators to wait on
+	 * @return The {@link Commands} object with our {@link org.openqa.selenium.WebDriver} instance
+	 */
+	public SeleniumCommands waitForAll(Using... locators);
+
+	/**
+	 * Waits until the condition is met, testing every check it holds in a single in page script per
+	 * poll rather than one wait and several round trips per check.
+	 *
+	 * @param condition The {@link Condition} to wait for
+	 * @return The {@link Commands} object with our {@link org.openqa.selenium.WebDriver} instance
+	 */
+	public SeleniumCommands waitUntil(Condition condition);
+
+	/**
+	 * Does the type, checkBox and comboBoxByText actions of the batch in order with a single in page
+	 * script, instead of several round trips per action. Any action the script cannot do is done by
+	 * the native command, which waits for its element as usual, and the script carries on after it.
+	 * Every action is attempted even if an earlier one failed.
+	 *
+	 * @param batch The {@link Batch} of actions to do
+	 * @return A {@link BatchReport} of how each action was done
+	 * @throws BatchException once the batch has run if any action failed
+	 */
+	public BatchReport runBatch(Batch batch);
+
 	public WebElement getElement(Using locator);
 	public List<WebElement> getElements(Using locator);
 	public int getElementCount(Using locator);
+
+	/**
+	 * Checks once, without waiting, whether the locator currently finds anything.
+	 *
+	 * @param locator The {@link Using} locator to check
+	 * @return true if at least one element was found
+	 */
+	public boolean isPresent(Using locator);
+
+	/**
+	 * Waits up to the time given for the locator to find an element, returning null instead of throwing
+	 * when it does not. A time of 0 looks exactly once.
+	 *
+	 * @param locator The {@link Using} locator to find
+	 * @param time The longest to wait, 0 to not wait at all
+	 * @param unit The {@link TimeUnit} of the time
+	 * @return The first element found, or null
+	 */
+	public WebElement tryGetElement(Using locator, long time, TimeUnit unit);
 	public String getElementAttribute(String attribute, Using locator);
 	public SeleniumCommands enterWebFrame(Using locator);
+
+	/**
+	 * Sets how long we wait for {@link WebElement}s and the widest interval we poll for them at. Both
+	 * times keep millisecond resolution so sub-second polling such as 200 MILLISECONDS is honored.
+	 *
+	 * @param waitTime How long to wait before throwing a {@link org.openqa.selenium.TimeoutException}
+	 * @param waitUnit The {@link TimeUnit} of the waitTime
+	 * @param pollingTime The widest interval between two lookups
+	 * @param pollingUnit The {@link TimeUnit} of the pollingTime
+	 * @return The {@link Commands} object with our {@link org.openqa.selenium.WebDriver} instance
+	 */
 	public SeleniumCommands setFluentWaitTime(
             Integer waitTime, TimeUnit waitUnit, Integer pollingTime, TimeUnit pollingUnit
     );
+
+	/**
+	 * Sets how the polling interval grows while waiting. The first lookup is retried after the initial
+	 * polling time, and each unsuccessful lookup multiplies the interval until it reaches the polling
+	 * time set by {@link SeleniumCommands#setFluentWaitTime(Integer, TimeUnit, Integer, TimeUnit)}.
+	 * A multiplier of 1 polls at a fixed interval. Defaults to 50 MILLISECONDS doubling each poll.
+	 *
+	 * @param initialPollingTime The interval between the first and second lookup
+	 * @param pollingUnit The {@link TimeUnit} of the initialPollingTime
+	 * @param multiplier How much the interval grows after each lookup, 1 or greater
+	 * @return The {@link Commands} object with our {@link org.openqa.selenium.WebDriver} instance
+	 */
+	public SeleniumCommands setPollingBackoff(long initialPollingTime, TimeUnit pollingUnit, double multiplier);
+
+	/**
+	 * Chooses how we wait for {@link WebElement}s to appear. {@link WaitStrategy#POLLING} is the
+	 * default. {@link WaitStrategy#MUTATION_OBSERVER} replaces the polling lookups with a single
+	 * asynchronous script per wait, and raises the driver's script timeout to a little over the wait
+	 * time so the script is not cut short.
+	 *
+	 * @param strategy The {@link WaitStrategy} to use
+	 * @return The {@link Commands} object with our {@link org.openqa.selenium.WebDriver} instance
+	 */
+	public SeleniumCommands setWaitStrategy(WaitStrategy strategy);
+
+
+	/**
+	 * Pauses the calling thread for the time supplied. The thread is parked rather than spinning so
+	 * any number of sessions may pause at once without using CPU. The pause ends early if the thread
+	 * is interrupted, in which case a {@link org.openqa.selenium.WebDriverException} is thrown, or if
+	 * {@link SeleniumCommands#cancelWaitForTime()} is called from another thread.
+	 * Under a {@link Deadline} the pause lasts no longer than the time left in it, and a
+	 * {@link DeadlineExceededException} is thrown when that cuts the pause short.
+	 *
+	 * @param time How long to pause for
+	 * @param unit The {@link TimeUnit} of the time
+	 * @return The {@link Commands} object with our {@link org.openqa.selenium.WebDriver} instance
+	 */
 	public SeleniumCommands waitForTime(long time, TimeUnit unit);
+
+	/**
+	 * Ends a pause started by {@link SeleniumCommands#waitForTime(long, TimeUnit)} on another thread.
+	 * Does nothing if no pause is running.
+	 *
+	 * @return The {@link Commands} object with our {@link org.openqa.selenium.WebDriver} instance
+	 */
+	public SeleniumCommands cancelWaitForTime();
+
 	public SeleniumCommands open(String url);
 	public SeleniumCommands close();
 	public SeleniumCommands popAllWebFrames();
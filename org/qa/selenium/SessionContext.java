@@ -0,0 +1,137 @@
+package org.qa.selenium;
+
+import org.qa.selenium.internal.CommandDescriptor;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * An immutable snapshot of where a {@link Commands} session is: the command it last ran, the url it
+ * is on, the frames it has entered and the popup it controls. Every change produces a new snapshot,
+ * so {@link Commands#getContext()} can be read from any thread, for example by a watchdog reporting
+ * on sessions, and always returns a consistent view without locking.
+ *
+ * Only the name of the last command is offered, since describing a command in full may ask the
+ * session's driver about the elements it was given, and only the session's own thread may do that.
+ */
+public final class SessionContext
+{
+	static final SessionContext EMPTY = new SessionContext(null, null, Collections.<Using>emptyList(), null, null);
+
+	private final CommandDescriptor lastCommand;
+	private final String currentUrl;
+	private final List<Using> frames;
+	private final String parentHandle;
+	private final String popUpHandle;
+
+	private SessionContext(CommandDescriptor lastCommand, String currentUrl, List<Using> frames,
+			String parentHandle, String popUpHandle)
+	{
+		this.lastCommand = lastCommand;
+		this.currentUrl = currentUrl;
+		this.frames = frames;
+		this.parentHandle = parentHandle;
+		this.popUpHandle = popUpHandle;
+	}
+
+	/**
+	 * @return The name of the command last started, such as "click", null before the first
+	 */
+	public String getLastCommand()
+	{
+		return (lastCommand == null) ? null : lastCommand.getName();
+	}
+
+	/**
+	 * @return The full description of the command last started, which must only be rendered by the
+	 * thread running the session
+	 */
+	CommandDescriptor lastCommandDescription()
+	{
+		return lastCommand;
+	}
+
+	/**
+	 * @return The url last recorded for the session, null when it is not known
+	 */
+	public String getCurrentUrl()
+	{
+		return currentUrl;
+	}
+
+	/**
+	 * @return The locators of the frames entered, the innermost first
+	 */
+	public List<Using> getFrames()
+	{
+		return frames;
+	}
+
+	/**
+	 * @return The innermost frame entered, or null at the top of the page
+	 */
+	public Using getCurrentFrame()
+	{
+		return frames.isEmpty() ? null : frames.get(0);
+	}
+
+	public String getParentHandle()
+	{
+		return parentHandle;
+	}
+
+	public String getPopUpHandle()
+	{
+		return popUpHandle;
+	}
+
+	SessionContext withLastCommand(CommandDescriptor command)
+	{
+		return new SessionContext(command, currentUrl, frames, parentHandle, popUpHandle);
+	}
+
+	SessionContext withCurrentUrl(String url)
+	{
+		return new SessionContext(lastCommand, url, frames, parentHandle, popUpHandle);
+	}
+
+	/**
+	 * @return A snapshot inside the frame, which becomes the innermost
+	 */
+	SessionContext withFrame(Using frame)
+	{
+		List<Using> entered = new ArrayList<Using>(frames.size() + 1);
+		entered.add(frame);
+		entered.addAll(frames);
+		return new SessionContext(lastCommand, currentUrl, Collections.unmodifiableList(entered),
+				parentHandle, popUpHandle);
+	}
+
+	/**
+	 * @return A snapshot with the innermost frame left
+	 */
+	SessionContext withoutCurrentFrame()
+	{
+		if (frames.size() <= 1) return withoutFrames();
+		return new SessionContext(lastCommand, currentUrl, frames.subList(1, frames.size()),
+				parentHandle, popUpHandle);
+	}
+
+	SessionContext withoutFrames()
+	{
+		return new SessionContext(lastCommand, currentUrl, Collections.<Using>emptyList(), parentHandle, popUpHandle);
+	}
+
+	SessionContext withPopUp(String parent, String popUp)
+	{
+		return new SessionContext(lastCommand, currentUrl, frames, parent, popUp);
+	}
+
+	@Override
+	public String toString()
+	{
+		return "SessionContext: " + getLastCommand() + " on " + currentUrl +
+				(frames.isEmpty() ? "" : " in " + frames.size() + " frames");
+	}
+}
@@ -0,0 +1,306 @@
+package org.qa.selenium;
+
+import org.apache.log4j.LogManager;
+import org.apache.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs scenarios written against {@link SeleniumCommands}, each in its own session, with at most a
+ * fixed number of sessions open on each Grid node at once. A scenario waiting for room on a node is
+ * queued rather than failing, and every scenario gets a fresh session that is closed when it ends.
+ *
+ * Scenarios spend nearly all their time blocked on the browser, so the executor they run on decides
+ * how many can be in flight. On Java 21 or later pass Executors.newVirtualThreadPerTaskExecutor() to
+ * keep thousands of scenarios in flight from one runner without a platform thread each; on older
+ * versions an unbounded pool such as Executors.newCachedThreadPool() does the same at a thread per
+ * scenario. The per node limits, not the executor, bound the load on the Grid.
+ */
+public class SessionExecutor
+{
+	/**
+	 * A test scenario, run against a session of its own.
+	 */
+	public interface Scenario<T>
+	{
+		T run(SeleniumCommands commands) throws Exception;
+	}
+
+	/**
+	 * Opens a session on a Grid node, for example new Commands(new RemoteWebDriver(new URL(node), capabilities)).
+	 */
+	public interface SessionFactory
+	{
+		SeleniumCommands open(String node) throws Exception;
+	}
+
+	private final Logger logger = LogManager.getLogger(getClass().getSimpleName());
+
+	private final ExecutorService executor;
+	private final SessionFactory sessions;
+	private final List<Node> nodes = new CopyOnWriteArrayList<Node>();
+
+	private final long started = System.nanoTime();
+	private final AtomicLong submitted = new AtomicLong();
+	private final AtomicLong completed = new AtomicLong();
+	private final AtomicLong failed = new AtomicLong();
+
+	/**
+	 * @param executor Runs the scenarios, see the class description for choosing one
+	 * @param sessions Opens a session on a node for each scenario
+	 */
+	public SessionExecutor(ExecutorService executor, SessionFactory sessions)
+	{
+		if (executor == null) throw new NullPointerException("ExecutorService must not be Null");
+		if (sessions == null) throw new NullPointerException("SessionFactory must not be Null");
+		this.executor = executor;
+		this.sessions = sessions;
+	}
+
+	/**
+	 * @param node The address of the Grid node, passed to the {@link SessionFactory}
+	 * @param maxSessions How many sessions the node may have open at once
+	 * @return This {@link SessionExecutor}
+	 */
+	public SessionExecutor addNode(String node, int maxSessions)
+	{
+		if (node == null) throw new NullPointerException("Node must not be Null");
+		if (maxSessions <= 0) throw new IllegalArgumentException("Max sessions must be positive and greater than 0");
+		nodes.add(new Node(node, maxSessions));
+		return this;
+	}
+
+	/**
+	 * @return The address of every node
+	 */
+	public List<String> getNodes()
+	{
+		List<String> names = new ArrayList<String>(nodes.size());
+		for (Node node : nodes)
+		{
+			names.add(node.name);
+		}
+		return names;
+	}
+
+	/**
+	 * Runs the scenario on whichever node has the most room once it starts.
+	 *
+	 * @return The scenario's result, or the exception it threw
+	 */
+	public <T> Future<T> submit(final Scenario<T> scenario)
+	{
+		return submit(null, scenario);
+	}
+
+	/**
+	 * Runs the scenario on the node given.
+	 *
+	 * @param node The node to run on, or null for whichever has the most room once it starts
+	 * @return The scenario's result, or the exception it threw
+	 */
+	public <T> Future<T> submit(final String node, final Scenario<T> scenario)
+	{
+		if (scenario == null) throw new NullPointerException("Scenario must not be Null");
+		if (node == null && nodes.isEmpty()) throw new IllegalStateException("Add a node before submitting scenarios");
+		final Node target = (node == null) ? null : findNode(node);
+		submitted.incrementAndGet();
+		return executor.submit(new Callable<T>()
+		{
+			@Override
+			public T call() throws Exception
+			{
+				return run((target == null) ? leastLoaded() : target, scenario);
+			}
+		});
+	}
+
+	public void shutdown()
+	{
+		executor.shutdown();
+	}
+
+	public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException
+	{
+		return executor.awaitTermination(timeout, unit);
+	}
+
+	/**
+	 * @return How many scenarios are waiting for room on a node
+	 */
+	public int getQueueDepth()
+	{
+		int queued = 0;
+		for (Node node : nodes)
+		{
+			queued += node.queued.get();
+		}
+		return queued;
+	}
+
+	/**
+	 * @return How many scenarios have a session open
+	 */
+	public int getInFlight()
+	{
+		int running = 0;
+		for (Node node : nodes)
+		{
+			running += node.running.get();
+		}
+		return running;
+	}
+
+	public int getQueueDepth(String node)
+	{
+		return findNode(node).queued.get();
+	}
+
+	public int getInFlight(String node)
+	{
+		return findNode(node).running.get();
+	}
+
+	public long getSubmitted()
+	{
+		return submitted.get();
+	}
+
+	/**
+	 * @return How many scenarios have finished, whether they passed or failed
+	 */
+	public long getCompleted()
+	{
+		return completed.get();
+	}
+
+	public long getFailed()
+	{
+		return failed.get();
+	}
+
+	/**
+	 * @param unit The {@link TimeUnit} to measure throughput per, such as MINUTES
+	 * @return How many scenarios have finished per unit of time since this executor was created
+	 */
+	public double getThroughput(TimeUnit unit)
+	{
+		long elapsed = System.nanoTime() - started;
+		return (elapsed <= 0) ? 0 : completed.get() * (double) unit.toNanos(1) / elapsed;
+	}
+
+	@Override
+	public String toString()
+	{
+		return "SessionExecutor: " + getInFlight() + " in flight, " + getQueueDepth() + " queued, " +
+				getCompleted() + " completed (" + getFailed() + " failed), " +
+				String.format("%.1f", getThroughput(TimeUnit.MINUTES)) + " per minute";
+	}
+
+	private <T> T run(Node node, Scenario<T> scenario) throws Exception
+	{
+		node.queued.incrementAndGet();
+		try
+		{
+			node.permits.acquire();
+		}
+		catch (InterruptedException e)
+		{
+			//The scenario never ran, but it is over, so it counts as failed
+			completed.incrementAndGet();
+			failed.incrementAndGet();
+			throw e;
+		}
+		finally
+		{
+			node.queued.decrementAndGet();
+		}
+
+		node.running.incrementAndGet();
+		boolean passed = false;
+		try
+		{
+			SeleniumCommands commands = sessions.open(node.name);
+			try
+			{
+				T result = scenario.run(commands);
+				passed = true;
+				return result;
+			}
+			finally
+			{
+				close(commands);
+			}
+		}
+		finally
+		{
+			node.running.decrementAndGet();
+			node.permits.release();
+			completed.incrementAndGet();
+			if (!passed) failed.incrementAndGet();
+		}
+	}
+
+	private void close(SeleniumCommands commands)
+	{
+		try
+		{
+			commands.close();
+		}
+		catch (RuntimeException e)
+		{
+			logger.warn("Could not close session: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Picks the node with the most free sessions once its queue is accounted for
+	 */
+	private Node leastLoaded()
+	{
+		Node best = null;
+		int bestRoom = Integer.MIN_VALUE;
+		for (Node node : nodes)
+		{
+			int room = node.permits.availablePermits() - node.queued.get();
+			if (room > bestRoom)
+			{
+				best = node;
+				bestRoom = room;
+			}
+		}
+		return best;
+	}
+
+	private Node findNode(String name)
+	{
+		for (Node node : nodes)
+		{
+			if (node.name.equals(name)) return node;
+		}
+		throw new IllegalArgumentException("Unknown node: " + name);
+	}
+
+	private static final class Node
+	{
+		private final String name;
+		private final Semaphore permits;
+		private final AtomicInteger queued = new AtomicInteger();
+		private final AtomicInteger running = new AtomicInteger();
+
+		private Node(String name, int maxSessions)
+		{
+			this.name = name;
+			this.permits = new Semaphore(maxSessions, true);
+		}
+	}
+}
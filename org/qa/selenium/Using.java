@@ -1,584 +1,374 @@
 package org.qa.selenium;
 
+import org.openqa.selenium.By;
 import org.openqa.selenium.WebElement;
-import org.qa.selenium.internal.ByCSS;
-import org.qa.selenium.internal.ByID;
-import org.qa.selenium.internal.ByWebElement;
-import org.qa.selenium.internal.ByXPath;
-
-import javax.xml.xpath.XPathExpressionException;
-import javax.xml.xpath.XPathFactory;
+import org.openqa.selenium.internal.WrapsElement;
+import org.openqa.selenium.remote.RemoteWebElement;
+import org.qa.selenium.internal.LocatorRegistry;
+import org.qa.selenium.internal.PageScripts;
+import org.qa.selenium.internal.XPathRewriter;
+
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * Created By: Justin Graham
  * Date: 1/29/13
+ *
+ * Locates elements for {@link SeleniumCommands}. A locator is either a {@link LocatorStrategy} and an
+ * expression, or elements that have already been found. Everything {@link Commands} needs to resolve
+ * the locator, its {@link By} and its in page script form, is worked out once when it is built.
  */
 public abstract class Using
 {
+	/**
+	 * Locators built through the static factories are interned, so a page object creating the same
+	 * locator in a loop gets the same instance back and each expression is only validated once
+	 */
+	private static final ConcurrentMap<String, Using> xpathLocators = new ConcurrentHashMap<String, Using>();
+	private static final ConcurrentMap<String, Using> cssLocators = new ConcurrentHashMap<String, Using>();
+	private static final ConcurrentMap<String, Using> idLocators = new ConcurrentHashMap<String, Using>();
+
+	/** When true simple XPath locators are resolved as the CSS selector or id they are equivalent to */
+	private static volatile boolean optimizeXPath;
+
+	/**
+	 * Turns the XPath optimizer on or off for locators built from now on. While on, an XPath simple
+	 * enough to have an exact CSS equivalent, such as //div[@id='x']/span[@class='y'], is found with
+	 * that CSS selector or id instead, which browsers match far faster. The XPath is kept and used if
+	 * the browser rejects the rewritten selector. Off by default.
+	 *
+	 * @param optimize true to rewrite simple XPath locators
+	 */
+	public static void setXPathOptimization(boolean optimize)
+	{
+		optimizeXPath = optimize;
+		xpathLocators.clear();
+	}
+
+	public static boolean isXPathOptimization()
+	{
+		return optimizeXPath;
+	}
+
 	public static Using XPath(final String xpathExpression)
 	{
-		return new UsingXPath(xpathExpression);
+		if (xpathExpression == null) throw new NullPointerException("XPath must not be null");
+		Using locator = xpathLocators.get(xpathExpression);
+		return (locator != null) ? locator : intern(xpathLocators, xpathExpression, new UsingXPath(xpathExpression));
 	}
 
 	public static Using CSS(final String cssExpression)
 	{
-		return new UsingCss(cssExpression);
+		if (cssExpression == null) throw new NullPointerException("CSS must not be Null");
+		Using locator = cssLocators.get(cssExpression);
+		return (locator != null) ? locator : intern(cssLocators, cssExpression, new UsingCss(cssExpression));
 	}
 
 	public static Using ID(final String id)
 	{
-		return new UsingID(id);
+		if (id == null) throw new NullPointerException("ID must not be Null");
+		Using locator = idLocators.get(id);
+		return (locator != null) ? locator : intern(idLocators, id, new UsingID(id));
 	}
 
-	public static Using WebElement(final WebElement element)
+	public static Using Name(final String name)
 	{
-		return new UsingWebElement(element);
+		return new UsingStrategy(LocatorStrategy.NAME, name);
 	}
 
-	@Override
-	public boolean equals(Object o)
+	public static Using LinkText(final String linkText)
 	{
-		if (this == o) return true;
-		if (o == null || getClass() != o.getClass()) return false;
-		Using commands = (Using) o;
-
-		return toString().equals(commands.toString());
+		return new UsingStrategy(LocatorStrategy.LINK_TEXT, linkText);
 	}
 
-	@Override
-	public int hashCode()
+	/**
+	 * @param strategy The kind of locator, which may be one of your own
+	 * @param expression The expression the strategy understands
+	 * @return A locator for the expression
+	 */
+	public static Using With(final LocatorStrategy strategy, final String expression)
 	{
-		return toString().hashCode();
+		return new UsingStrategy(strategy, expression);
 	}
 
-	@Override
-	public String toString()
+	private static Using intern(ConcurrentMap<String, Using> locators, String expression, Using locator)
 	{
-		return "[unknown locator]";
+		if (locators.size() >= LocatorRegistry.MAX_ENTRIES) return locator;
+		Using existing = locators.putIfAbsent(expression, locator);
+		return (existing == null) ? locator : existing;
 	}
 
-	public abstract void Click(SeleniumCommands commands);
-	public abstract void ClickRandom(SeleniumCommands commands);
-	public abstract void Type(String input, SeleniumCommands commands);
-	public abstract void ComboBoxText(String visibleText, SeleniumCommands commands);
-	public abstract void ComboBoxIndex(int index, SeleniumCommands commands);
-	public abstract void ComboBoxRandom(SeleniumCommands commands);
-	public abstract String ComboBoxDisplayText(SeleniumCommands commands);
-	public abstract int ComboBoxDisplayIndex(SeleniumCommands commands);
-	public abstract List<WebElement> ComboBoxGetOptions(SeleniumCommands commands);
-	public abstract void WaitForElement(SeleniumCommands commands);
-	public abstract WebElement GetElement(SeleniumCommands commands);
-	public abstract List<WebElement> GetElements(SeleniumCommands commands);
-	public abstract int GetElementCount(SeleniumCommands commands);
-	public abstract String GetElementAttribute(String attribute, SeleniumCommands commands);
-	public abstract void EnterWebFrame(SeleniumCommands commands);
-	public abstract String GetText(SeleniumCommands commands);
-	public abstract void CheckBox(boolean selected, SeleniumCommands commands);
-
-	public static class UsingXPath extends Using
+	public static Using WebElement(final WebElement element)
 	{
-		private String xpath;
-
-		public UsingXPath(String xpath)
-		{
-			if (xpath == null) throw new NullPointerException("XPath must not be null");
-			validateXPath(xpath);
-			this.xpath = xpath;
-		}
-
-		@Override
-		public void Click(SeleniumCommands commands)
-		{
-			((ByXPath) commands).clickElementByXPath(xpath);
-		}
-
-		@Override
-		public void ClickRandom(SeleniumCommands commands)
-		{
-			((ByXPath) commands).clickRandomElementByXPath(xpath);
-		}
-
-		@Override
-		public void CheckBox(boolean selected, SeleniumCommands commands)
-		{
-			((ByXPath) commands).checkBoxByXPath(selected, xpath);
-		}
-
-		@Override
-		public WebElement GetElement(SeleniumCommands commands)
-		{
-			return ((ByXPath) commands).getElementByXPath(xpath);
-		}
-
-		@Override
-		public int GetElementCount(SeleniumCommands commands)
-		{
-			return ((ByXPath) commands).getElementCountByXPath(xpath);
-		}
-
-		@Override
-		public void Type(String input, SeleniumCommands commands)
-		{
-			if (input == null) throw new NullPointerException("String input must not be Null");
-			((ByXPath) commands).typeByXPath(input, xpath);
-		}
-
-		@Override
-		public void ComboBoxText(String visibleText, SeleniumCommands commands)
-		{
-			if (visibleText == null) throw new NullPointerException("String visibleText must not be Null");
-			((ByXPath) commands).comboBoxVisibleTextByXPath(visibleText, xpath);
-		}
-
-		@Override
-		public void ComboBoxIndex(int index, SeleniumCommands commands)
-		{
-			if (index < 0) throw new IllegalArgumentException("Index must be greater then 0");
-			((ByXPath) commands).comboBoxIndexByXPath(index, xpath);
-		}
-
-		@Override
-		public void ComboBoxRandom(SeleniumCommands commands)
-		{
-			((ByXPath) commands).comboBoxRandomByXPath(xpath);
-		}
+		return new UsingWebElement(element);
+	}
 
-		@Override
-		public String ComboBoxDisplayText(SeleniumCommands commands)
-		{
-			return ((ByXPath) commands).comboBoxGetDisplayTextByXPath(xpath);
-		}
+	/** The kind of locator, null for locators that hold their elements */
+	private final LocatorStrategy strategy;
+	private final String expression;
 
-		@Override
-		public int ComboBoxDisplayIndex(SeleniumCommands commands)
-		{
-			return ((ByXPath) commands).comboBoxGetDisplayIndexByXPath(xpath);
-		}
+	/** How commands resolve the locator: through WebDriver, or through an in page script */
+	private final By by;
+	private final String scriptKind;
+	private final Object scriptExpression;
 
-		@Override
-		public List<WebElement> ComboBoxGetOptions(SeleniumCommands commands)
-		{
-			return ((ByXPath) commands).comboBoxGetOptionsByXPath(xpath);
-		}
+	/** The elements this locator holds, null for locators that need finding */
+	private final List<WebElement> elements;
 
-		@Override
-		public void WaitForElement(SeleniumCommands commands)
-		{
-			((ByXPath) commands).waitForXPath(xpath);
-		}
+	/** The locator as written, when it is resolved through a rewritten form, otherwise null */
+	private final Using fallback;
 
-		@Override
-		public List<WebElement> GetElements(SeleniumCommands commands)
-		{
-			return ((ByXPath) commands).getElementsByXPath(xpath);
-		}
+	/**
+	 * What makes two locators of the same kind equal: the expression, or the remote id of the element
+	 */
+	private final Object identity;
+	private final int hash;
 
-		@Override
-		public String GetElementAttribute(String attribute, SeleniumCommands commands)
-		{
-			if (attribute == null) throw new NullPointerException("String param must not be Null");
-			return ((ByXPath) commands).getElementAttributeByXPath(attribute, xpath);
-		}
+	/**
+	 * @param strategy The kind of locator
+	 * @param expression An expression the strategy understands, validated here
+	 */
+	protected Using(LocatorStrategy strategy, String expression)
+	{
+		this(strategy, expression, null);
+	}
 
-		@Override
-		public String GetText(SeleniumCommands commands)
-		{
-			return ((ByXPath) commands).getTextByXPath(xpath);
-		}
+	/**
+	 * @param strategy The kind of locator
+	 * @param expression An expression the strategy understands, validated here
+	 * @param rewrite An equivalent locator that is faster to resolve, or null to resolve the expression
+	 */
+	protected Using(LocatorStrategy strategy, String expression, Using rewrite)
+	{
+		if (strategy == null) throw new NullPointerException("LocatorStrategy must not be Null");
+		if (expression == null) throw new NullPointerException(strategy.getName() + " must not be Null");
+		strategy.validate(expression);
 
-		@Override
-		public void EnterWebFrame(SeleniumCommands commands)
+		this.strategy = strategy;
+		this.expression = expression;
+		if (rewrite == null)
 		{
-			((ByXPath) commands).enterWebFrameByXPath(xpath);
+			this.by = strategy.by(expression);
+			this.scriptKind = strategy.scriptKind();
+			this.scriptExpression = strategy.scriptExpression(expression);
+			this.fallback = null;
 		}
-
-		@Override
-		public String toString()
+		else
 		{
-			return "XPath: " + xpath;
-		}
-
-		private static void validateXPath(String x)
-		{
-			XPathFactory factory = XPathFactory.newInstance();
-			javax.xml.xpath.XPath validate = factory.newXPath();
-
-			try
-			{
-				validate.compile(x);
-			}
-			catch (XPathExpressionException e)
-			{
-				throw new MalformedXmlElement("Invalid XPath: " + x);
-			}
+			this.by = rewrite.by;
+			this.scriptKind = rewrite.scriptKind;
+			this.scriptExpression = rewrite.scriptExpression;
+			this.fallback = new UsingStrategy(strategy, expression);
 		}
+		this.elements = null;
+		this.identity = expression;
+		this.hash = 31 * (31 * getClass().hashCode() + strategy.hashCode()) + expression.hashCode();
 	}
 
-	public static class UsingCss extends Using
+	/**
+	 * @param elements Elements that have already been found, the first being the one acted on
+	 */
+	protected Using(List<WebElement> elements)
 	{
-		private String css;
-
-		public UsingCss(String css)
-		{
-			if (css == null) throw new NullPointerException("CSS must not be Null");
-			this.css = css;
-		}
+		if (elements == null || elements.isEmpty()) throw new NullPointerException("Elements must not be Null");
+		List<WebElement> copy = Collections.unmodifiableList(new ArrayList<WebElement>(elements));
+
+		this.strategy = null;
+		this.expression = null;
+		this.by = null;
+		this.scriptKind = PageScripts.ELEMENTS;
+		this.scriptExpression = copy;
+		this.elements = copy;
+		this.fallback = null;
+		this.identity = elementsIdentity(copy);
+		this.hash = 31 * getClass().hashCode() + identity.hashCode();
+	}
 
-		@Override
-		public void Click(SeleniumCommands commands)
-		{
-			((ByCSS) commands).clickElementByCSS(css);
-		}
+	/**
+	 * @return The kind of locator, or null if the locator holds its elements
+	 */
+	public final LocatorStrategy getStrategy()
+	{
+		return strategy;
+	}
 
-		@Override
-		public void ClickRandom(SeleniumCommands commands)
-		{
-			((ByCSS) commands).clickRandomElementByCSS(css);
-		}
+	/**
+	 * @return The expression the locator was built from, or null if the locator holds its elements
+	 */
+	public final String getExpression()
+	{
+		return expression;
+	}
 
-		@Override
-		public void CheckBox(boolean selected, SeleniumCommands commands)
-		{
-			((ByCSS) commands).checkBoxByCSS(selected, css);
-		}
+	final boolean holdsElements()
+	{
+		return elements != null;
+	}
 
-		@Override
-		public WebElement GetElement(SeleniumCommands commands)
-		{
-			return ((ByCSS) commands).getElementByCSS(css);
-		}
+	/**
+	 * @return The held elements, null unless {@link #holdsElements()}
+	 */
+	final List<WebElement> elements()
+	{
+		return elements;
+	}
 
-		@Override
-		public int GetElementCount(SeleniumCommands commands)
-		{
-			return ((ByCSS) commands).getElementCountByCSS(css);
-		}
+	/**
+	 * @return The locator as written when it is resolved through a rewritten form, otherwise null
+	 */
+	final Using fallback()
+	{
+		return fallback;
+	}
 
-		@Override
-		public void Type(String input, SeleniumCommands commands)
-		{
-			((ByCSS) commands).typeByCSS(input, css);
-		}
+	/**
+	 * @return How WebDriver finds the locator, null if it holds its elements
+	 */
+	final By by()
+	{
+		return by;
+	}
 
-		@Override
-		public void ComboBoxText(String visibleText, SeleniumCommands commands)
-		{
-			((ByCSS) commands).comboBoxVisibleTextByCSS(visibleText, css);
-		}
+	/**
+	 * @return The locator kind passed to {@link PageScripts}
+	 */
+	final String scriptKind()
+	{
+		return scriptKind;
+	}
 
-		@Override
-		public void ComboBoxIndex(int index, SeleniumCommands commands)
-		{
-			if (index < 0) throw new IllegalArgumentException("Index must be greater then 0");
-			((ByCSS) commands).comboBoxIndexByCSS(index, css);
-		}
+	/**
+	 * @return The expression passed to {@link PageScripts}, or the held elements
+	 */
+	final Object scriptExpression()
+	{
+		return scriptExpression;
+	}
 
-		@Override
-		public void ComboBoxRandom(SeleniumCommands commands)
-		{
-			((ByCSS) commands).comboBoxRandomByCSS(css);
-		}
+	/**
+	 * Compares the kind of locator and its identity, so locators can be used as map keys without
+	 * touching the browser.
+	 */
+	@Override
+	public boolean equals(Object o)
+	{
+		if (this == o) return true;
+		if (o == null || getClass() != o.getClass()) return false;
+		Using commands = (Using) o;
 
-		@Override
-		public String ComboBoxDisplayText(SeleniumCommands commands)
-		{
-			return ((ByCSS) commands).comboBoxGetDisplayTextByCSS(css);
-		}
+		return strategy == commands.strategy && identity.equals(commands.identity);
+	}
 
-		@Override
-		public int ComboBoxDisplayIndex(SeleniumCommands commands)
-		{
-			return ((ByCSS) commands).comboBoxGetDisplayIndexByCSS(css);
-		}
+	@Override
+	public int hashCode()
+	{
+		return hash;
+	}
 
-		@Override
-		public List<WebElement> ComboBoxGetOptions(SeleniumCommands commands)
-		{
-			return ((ByCSS) commands).comboBoxGetOptionsByCSS(css);
-		}
+	@Override
+	public String toString()
+	{
+		return strategy.getName() + ": " + expression;
+	}
 
-		@Override
-		public void WaitForElement(SeleniumCommands commands)
+	/**
+	 * Remote elements are identified by the id the driver gave them, which the element already holds.
+	 * Any other element is its own identity.
+	 */
+	private static Object elementIdentity(WebElement element)
+	{
+		if (element == null) throw new NullPointerException("WebElement must not be Null");
+		WebElement unwrapped = element;
+		while (unwrapped instanceof WrapsElement)
 		{
-			((ByCSS) commands).waitForCSS(css);
+			unwrapped = ((WrapsElement) unwrapped).getWrappedElement();
 		}
-
-		@Override
-		public List<WebElement> GetElements(SeleniumCommands commands)
+		if (unwrapped instanceof RemoteWebElement && ((RemoteWebElement) unwrapped).getId() != null)
 		{
-			return ((ByCSS) commands).getElementsByCSS(css);
+			return ((RemoteWebElement) unwrapped).getId();
 		}
+		return element;
+	}
 
-		@Override
-		public String GetElementAttribute(String attribute, SeleniumCommands commands)
+	private static Object elementsIdentity(List<WebElement> elements)
+	{
+		if (elements.size() == 1) return elementIdentity(elements.get(0));
+		List<Object> identities = new ArrayList<Object>(elements.size());
+		for (WebElement element : elements)
 		{
-			if (attribute == null) throw new NullPointerException("String param must not be Null");
-			return ((ByCSS) commands).getElementAttributeByCSS(attribute, css);
+			identities.add(elementIdentity(element));
 		}
+		return identities;
+	}
 
-		@Override
-		public String GetText(SeleniumCommands commands)
+	public static class UsingXPath extends Using
+	{
+		public UsingXPath(String xpath)
 		{
-			return ((ByCSS) commands).getTextByCSS(css);
+			super(LocatorStrategy.XPATH, xpath, optimizeXPath ? rewrite(xpath) : null);
 		}
 
-		@Override
-		public void EnterWebFrame(SeleniumCommands commands)
+		private static Using rewrite(String xpath)
 		{
-			((ByCSS) commands).enterWebFrameByCSS(css);
+			XPathRewriter.Rewrite rewrite = XPathRewriter.rewrite(xpath);
+			if (rewrite == null) return null;
+			return new UsingStrategy(rewrite.isId() ? LocatorStrategy.ID : LocatorStrategy.CSS, rewrite.getExpression());
 		}
+	}
 
-		@Override
-		public String toString()
+	public static class UsingCss extends Using
+	{
+		public UsingCss(String css)
 		{
-			return "Css: " + css;
+			super(LocatorStrategy.CSS, css);
 		}
 	}
 
 	public static class UsingID extends Using
 	{
-		private String id;
-
 		public UsingID(String id)
 		{
-			if (id == null) throw new NullPointerException("ID must not be Null");
-			this.id = id;
-		}
-
-		@Override
-		public void Click(SeleniumCommands commands)
-		{
-			((ByID) commands).clickElementByID(id);
-		}
-
-		@Override
-		public void ClickRandom(SeleniumCommands commands)
-		{
-			((ByID) commands).clickRandomElementByID(id);
-		}
-
-		@Override
-		public void CheckBox(boolean selected, SeleniumCommands commands)
-		{
-			((ByID) commands).checkBoxByID(selected, id);
-		}
-
-		@Override
-		public WebElement GetElement(SeleniumCommands commands)
-		{
-			return ((ByID) commands).getElementByID(id);
-		}
-
-		@Override
-		public int GetElementCount(SeleniumCommands commands)
-		{
-			return ((ByID) commands).getElementCountByID(id);
-		}
-
-		@Override
-		public void Type(String input, SeleniumCommands commands)
-		{
-			((ByID) commands).typeByID(input, id);
-		}
-
-		@Override
-		public void ComboBoxText(String visibleText, SeleniumCommands commands)
-		{
-			((ByID) commands).comboBoxVisibleTextByID(visibleText, id);
-		}
-
-		@Override
-		public void ComboBoxIndex(int index, SeleniumCommands commands)
-		{
-			if (index < 0) throw new IllegalArgumentException("Index must be greater then 0");
-			((ByID) commands).comboBoxIndexByID(index, id);
-		}
-
-		@Override
-		public void ComboBoxRandom(SeleniumCommands commands)
-		{
-			((ByID) commands).comboBoxRandomByID(id);
-		}
-
-		@Override
-		public String ComboBoxDisplayText(SeleniumCommands commands)
-		{
-			return ((ByID) commands).comboBoxGetDisplayTextByID(id);
-		}
-
-		@Override
-		public int ComboBoxDisplayIndex(SeleniumCommands commands)
-		{
-			return ((ByID) commands).comboBoxGetDisplayIndexByID(id);
-		}
-
-		@Override
-		public List<WebElement> ComboBoxGetOptions(SeleniumCommands commands)
-		{
-			return ((ByID) commands).comboBoxGetOptionsByID(id);
-		}
-
-		@Override
-		public void WaitForElement(SeleniumCommands commands)
-		{
-			((ByID) commands).waitForID(id);
-		}
-
-		@Override
-		public List<WebElement> GetElements(SeleniumCommands commands)
-		{
-			return ((ByID) commands).getElementsByID(id);
+			super(LocatorStrategy.ID, id);
 		}
 
 		@Override
-		public String GetElementAttribute(String attribute, SeleniumCommands commands)
-		{
-			if (attribute == null) throw new NullPointerException("String param must not be Null");
-			return ((ByID) commands).getElementAttributeByID(attribute, id);
-		}
-
-		@Override
-		public String GetText(SeleniumCommands commands)
-		{
-			return ((ByID) commands).getTextByID(id);
-		}
-
-		@Override
-		public void EnterWebFrame(SeleniumCommands commands)
+		public String toString()
 		{
-			((ByID) commands).enterWebFrameByID(id);
+			return "ID: '" + getExpression() + "'";
 		}
+	}
 
-		@Override
-		public String toString()
+	/**
+	 * A locator of any other kind, including ones defined outside this library
+	 */
+	public static class UsingStrategy extends Using
+	{
+		public UsingStrategy(LocatorStrategy strategy, String expression)
 		{
-			return "ID: '" + id + "'";
+			super(strategy, expression);
 		}
 	}
 
 	public static class UsingWebElement extends Using
 	{
-		private WebElement element;
-		private List<WebElement> elements;
+		private final WebElement element;
 
 		public UsingWebElement(WebElement element)
 		{
-			if (element == null) throw new NullPointerException("WebElement must not be Null");
+			super(Collections.singletonList(element));
 			this.element = element;
 		}
 
 		public UsingWebElement(List<WebElement> elements)
 		{
-			if (elements == null || elements.isEmpty()) throw new NullPointerException("Elements must not be Null");
-			this.elements = elements;
+			super(elements);
 			this.element = elements.get(0);
 		}
 
-		@Override
-		public void Click(SeleniumCommands commands)
-		{
-			((ByWebElement) commands).clickElementByWebElement(element);
-		}
-
-		@Override
-		public void ClickRandom(SeleniumCommands commands)
-		{
-			((ByWebElement) commands).clickRandomElementByWebElement(elements);
-		}
-
-		@Override
-		public void CheckBox(boolean selected, SeleniumCommands commands)
-		{
-			((ByWebElement) commands).checkBoxByWebElement(selected, element);
-		}
-
-		@Override
-		public void Type(String input, SeleniumCommands commands)
-		{
-			((ByWebElement) commands).typeByWebElement(input, element);
-		}
-
-		@Override
-		public void ComboBoxText(String visibleText, SeleniumCommands commands)
-		{
-			((ByWebElement) commands).comboBoxVisibleTextByWebElement(visibleText, element);
-		}
-
-		@Override
-		public void ComboBoxIndex(int index, SeleniumCommands commands)
-		{
-			if (index < 0) throw new IllegalArgumentException("Index must be greater then 0");
-			((ByWebElement) commands).comboBoxIndexByWebElement(index, element);
-		}
-
-		@Override
-		public void ComboBoxRandom(SeleniumCommands commands)
-		{
-			((ByWebElement) commands).comboBoxRandomByWebElement(element);
-		}
-
-		@Override
-		public String ComboBoxDisplayText(SeleniumCommands commands)
-		{
-			return ((ByWebElement) commands).comboBoxGetDisplayTextByWebElement(element);
-		}
-
-		@Override
-		public int ComboBoxDisplayIndex(SeleniumCommands commands)
-		{
-			return ((ByWebElement) commands).comboBoxGetDisplayIndexByWebElement(element);
-		}
-
-		@Override
-		public List<WebElement> ComboBoxGetOptions(SeleniumCommands commands)
-		{
-			return ((ByWebElement) commands).comboBoxGetOptionsByWebElement(element);
-		}
-
-		@Override
-		public void WaitForElement(SeleniumCommands commands)
-		{
-			((ByWebElement) commands).waitForWebElement(element);
-		}
-
-		@Override
-		public WebElement GetElement(SeleniumCommands commands)
-		{
-			return ((ByWebElement) commands).getElementByWebElement(element);
-		}
-
-		@Override
-		public List<WebElement> GetElements(SeleniumCommands commands)
-		{
-			return ((ByWebElement) commands).getElementsByWebElement(element);
-		}
-
-		@Override
-		public int GetElementCount(SeleniumCommands commands)
-		{
-			return ((ByWebElement) commands).getElementCountByWebElement(element);
-		}
-
-		@Override
-		public String GetElementAttribute(String attribute, SeleniumCommands commands)
-		{
-			if (attribute == null) throw new NullPointerException("String param must not be Null");
-			return ((ByWebElement) commands).getElementAttributeByWebElement(attribute, element);
-		}
-
-		@Override
-		public String GetText(SeleniumCommands commands)
-		{
-			return ((ByWebElement) commands).getTextByWebElement(element);
-		}
-
-		@Override
-		public void EnterWebFrame(SeleniumCommands commands)
-		{
-			((ByWebElement) commands).enterWebFrameByWebElement(element);
-		}
-
 		@Override
 		public String toString()
 		{
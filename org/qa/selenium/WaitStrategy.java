@@ -0,0 +1,23 @@
+package org.qa.selenium;
+
+/**
+ * How {@link Commands} waits for an element to appear.
+ */
+public enum WaitStrategy
+{
+	/** Look for the element again on every polling interval until it is found or the wait times out */
+	POLLING,
+
+	/**
+	 * Install a MutationObserver in the page and make one long asynchronous script call that returns as
+	 * soon as the element appears or the wait times out. Browsers without MutationObserver support,
+	 * or a page that unloads during the wait, fall back to {@link #POLLING} for the rest of the wait.
+	 *
+	 * The driver's asynchronous script timeout is raised to a little over the wait time and left there,
+	 * since WebDriver has no way to read the previous value back. This applies to every
+	 * executeAsyncScript call made on the driver, including the caller's own. A caller who changes it
+	 * for their own scripts should choose this strategy again afterwards so it is raised again before
+	 * the next wait.
+	 */
+	MUTATION_OBSERVER
+}
@@ -0,0 +1,186 @@
+package org.qa.selenium.internal;
+
+import com.google.common.base.Function;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.support.ui.Wait;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A {@link Wait} with millisecond resolution whose polling interval starts short and widens after
+ * every unsuccessful poll. Elements that appear quickly are found within one short interval, while
+ * elements that take a while are not hammered with lookups.
+ *
+ * Like {@link org.openqa.selenium.support.ui.FluentWait} a condition is met once it returns anything
+ * other than null or {@link Boolean#FALSE}. Unlike FluentWait one instance is meant to be configured
+ * once and reused for every wait: a successful wait allocates nothing of its own, and the failure
+ * message is only rendered when a wait actually times out.
+ */
+public class AdaptiveWait implements Wait<WebDriver>
+{
+	private final WebDriver driver;
+
+	private long timeoutMillis = TimeUnit.SECONDS.toMillis(15);
+	private long initialPollMillis = 50;
+	private long maxPollMillis = TimeUnit.SECONDS.toMillis(1);
+	private double backoff = 2.0;
+	private Object message;
+	private final List<Class<? extends Throwable>> ignored = new ArrayList<Class<? extends Throwable>>();
+	private final List<Class<? extends Throwable>> propagated = new ArrayList<Class<? extends Throwable>>();
+
+	public AdaptiveWait(WebDriver driver)
+	{
+		this.driver = driver;
+	}
+
+	public AdaptiveWait withTimeout(long time, TimeUnit unit)
+	{
+		timeoutMillis = unit.toMillis(time);
+		return this;
+	}
+
+	/**
+	 * @param initial The first polling interval
+	 * @param max The widest the polling interval may grow to
+	 * @param unit The {@link TimeUnit} of both intervals
+	 * @param multiplier How much the interval grows after each unsuccessful poll, 1 for a fixed interval
+	 */
+	public AdaptiveWait pollingEvery(long initial, long max, TimeUnit unit, double multiplier)
+	{
+		if (multiplier < 1) throw new IllegalArgumentException("Polling multiplier must be 1 or greater");
+		maxPollMillis = unit.toMillis(max);
+		initialPollMillis = Math.min(unit.toMillis(initial), maxPollMillis);
+		backoff = multiplier;
+		return this;
+	}
+
+	/**
+	 * @param message Describes the wait on failure. Its toString() is only called when a wait times out,
+	 * so it may render state that changes between waits.
+	 */
+	public AdaptiveWait withMessage(Object message)
+	{
+		this.message = message;
+		return this;
+	}
+
+	public AdaptiveWait ignoring(Class<? extends Throwable> exceptionType)
+	{
+		ignored.add(exceptionType);
+		return this;
+	}
+
+	/**
+	 * Throws exceptions of this type straight away, even when they extend an ignored type. For failures
+	 * that polling again can never fix, such as an invalid selector.
+	 */
+	public AdaptiveWait propagating(Class<? extends Throwable> exceptionType)
+	{
+		propagated.add(exceptionType);
+		return this;
+	}
+
+	@Override
+	public <T> T until(Function<? super WebDriver, T> isTrue)
+	{
+		return await(isTrue, timeoutMillis, true);
+	}
+
+	/**
+	 * Waits like {@link #until(Function)} for the time given instead of the configured timeout.
+	 */
+	public <T> T until(Function<? super WebDriver, T> isTrue, long time, TimeUnit unit)
+	{
+		return await(isTrue, unit.toMillis(time), true);
+	}
+
+	/**
+	 * Waits like {@link #until(Function)} for the time given instead of the configured timeout, and
+	 * returns null rather than throwing when it runs out.
+	 *
+	 * @return The value that met the condition, or null if it was not met in time
+	 */
+	public <T> T poll(Function<? super WebDriver, T> isTrue, long time, TimeUnit unit)
+	{
+		return await(isTrue, unit.toMillis(time), false);
+	}
+
+	private <T> T await(Function<? super WebDriver, T> isTrue, long timeout, boolean throwOnTimeout)
+	{
+		long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+		long interval = Math.max(1, initialPollMillis);
+		RuntimeException lastException = null;
+
+		while (true)
+		{
+			try
+			{
+				T value = isTrue.apply(driver);
+				if (value != null && (Boolean.class != value.getClass() || Boolean.TRUE.equals(value)))
+				{
+					return value;
+				}
+			}
+			catch (RuntimeException e)
+			{
+				if (!isIgnored(e)) throw e;
+				lastException = e;
+			}
+
+			long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+			if (remaining <= 0)
+			{
+				if (throwOnTimeout) throw timeout(timeout, lastException);
+				return null;
+			}
+
+			sleep(Math.min(interval, remaining));
+			interval = nextInterval(interval);
+		}
+	}
+
+	private long nextInterval(long interval)
+	{
+		long next = (long) (interval * backoff);
+		//Make sure a small interval with a small multiplier still grows
+		if (backoff > 1 && next <= interval) next = interval + 1;
+		return Math.max(1, Math.min(maxPollMillis, next));
+	}
+
+	private boolean isIgnored(RuntimeException e)
+	{
+		for (Class<? extends Throwable> type : propagated)
+		{
+			if (type.isInstance(e)) return false;
+		}
+		for (Class<? extends Throwable> type : ignored)
+		{
+			if (type.isInstance(e)) return true;
+		}
+		return false;
+	}
+
+	private TimeoutException timeout(long timeout, RuntimeException cause)
+	{
+		String timeoutMessage = "Timed out after " + timeout + " milliseconds" +
+				((message == null) ? "" : ": " + message);
+		return new TimeoutException(timeoutMessage, cause);
+	}
+
+	private static void sleep(long millis)
+	{
+		try
+		{
+			Pause.park(millis, TimeUnit.MILLISECONDS);
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			throw new WebDriverException(e);
+		}
+	}
+}
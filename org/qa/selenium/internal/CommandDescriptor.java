@@ -0,0 +1,62 @@
+package org.qa.selenium.internal;
+
+/**
+ * Describes a command by its name, a {@link String#format(String, Object...)} pattern and the
+ * arguments to fill it with. Nothing is rendered until {@link #toString()} is called, which only
+ * happens when the command is logged or fails, so describing a command costs the same whatever the
+ * log level. This matters for arguments such as WebElement locators whose toString() calls the driver.
+ */
+public final class CommandDescriptor
+{
+	private final String name;
+	private final String pattern;
+	private final Object[] args;
+
+	/** The rendered description, kept once built */
+	private volatile String rendered;
+
+	public CommandDescriptor(String name, String pattern, Object... args)
+	{
+		this.name = name;
+		this.pattern = pattern;
+		this.args = args;
+	}
+
+	/**
+	 * @return The name of the {@link org.qa.selenium.SeleniumCommands} method, such as "click"
+	 */
+	public String getName()
+	{
+		return name;
+	}
+
+	/**
+	 * Describes the command without rendering it, so it is safe from any thread: the full description
+	 * if it has already been rendered, otherwise just the name.
+	 */
+	public String describeIfRendered()
+	{
+		String description = rendered;
+		return (description == null) ? name : description;
+	}
+
+	@Override
+	public String toString()
+	{
+		String description = rendered;
+		if (description == null)
+		{
+			try
+			{
+				description = String.format(pattern, args);
+			}
+			catch (RuntimeException e)
+			{
+				//An argument may need the driver to describe itself, which can fail once the page has moved on
+				return name + " (unable to describe: " + e.getClass().getSimpleName() + ")";
+			}
+			rendered = description;
+		}
+		return description;
+	}
+}
@@ -0,0 +1,169 @@
+package org.qa.selenium.internal;
+
+import com.google.common.base.Function;
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+import java.util.List;
+
+/**
+ * Wait conditions that are created once per {@link org.qa.selenium.Commands} and pointed at a new
+ * target before each wait, rather than allocating an anonymous {@link Function} for every lookup.
+ * Each condition records every remote find it makes with the owner's {@link ResolutionContext}.
+ *
+ * A condition holds the target of the wait in progress, so an instance must only be used by one
+ * wait at a time.
+ */
+public final class Conditions
+{
+	private Conditions()
+	{
+	}
+
+	/**
+	 * Met by the first element the locator finds. Looks with findElements so a poll that finds nothing
+	 * costs an empty list rather than a NoSuchElementException built on both sides of the wire.
+	 */
+	public static final class FindElement implements Function<WebDriver, WebElement>
+	{
+		private final ResolutionContext resolutions;
+		private By by;
+
+		public FindElement(ResolutionContext resolutions)
+		{
+			this.resolutions = resolutions;
+		}
+
+		public FindElement target(By by)
+		{
+			this.by = by;
+			return this;
+		}
+
+		@Override
+		public WebElement apply(WebDriver driver)
+		{
+			resolutions.recordFind();
+			List<WebElement> found = driver.findElements(by);
+			return found.isEmpty() ? null : found.get(0);
+		}
+	}
+
+	/**
+	 * Met by the list of elements the locator finds, even when it is empty.
+	 */
+	public static final class FindElements implements Function<WebDriver, List<WebElement>>
+	{
+		private final ResolutionContext resolutions;
+		private By by;
+
+		public FindElements(ResolutionContext resolutions)
+		{
+			this.resolutions = resolutions;
+		}
+
+		public FindElements target(By by)
+		{
+			this.by = by;
+			return this;
+		}
+
+		@Override
+		public List<WebElement> apply(WebDriver driver)
+		{
+			resolutions.recordFind();
+			return driver.findElements(by);
+		}
+	}
+
+	/**
+	 * Met by the first displayed and enabled element at the locator, scrolled into view, using a single
+	 * {@link PageScripts#FIND_CLICKABLE} call per poll.
+	 */
+	public static final class FindClickable implements Function<WebDriver, WebElement>
+	{
+		private final ResolutionContext resolutions;
+		private String kind;
+		private Object expression;
+
+		public FindClickable(ResolutionContext resolutions)
+		{
+			this.resolutions = resolutions;
+		}
+
+		/**
+		 * @param kind The locator kind from {@link PageScripts}
+		 * @param expression The locator expression, or the elements themselves for {@link PageScripts#ELEMENTS}
+		 */
+		public FindClickable target(String kind, Object expression)
+		{
+			this.kind = kind;
+			this.expression = expression;
+			return this;
+		}
+
+		@Override
+		public WebElement apply(WebDriver driver)
+		{
+			resolutions.recordFind();
+			return (WebElement) ((JavascriptExecutor) driver).executeScript(
+					PageScripts.FIND_CLICKABLE, kind, expression);
+		}
+	}
+
+	/**
+	 * Met once a page script returns anything other than null or false, using a single script call
+	 * per poll.
+	 */
+	public static final class PageCheck implements Function<WebDriver, Object>
+	{
+		private final ResolutionContext resolutions;
+		private String script;
+		private Object[] args;
+
+		public PageCheck(ResolutionContext resolutions)
+		{
+			this.resolutions = resolutions;
+		}
+
+		/**
+		 * @param script One of the checks from {@link PageScripts}
+		 * @param args The arguments the script takes
+		 */
+		public PageCheck target(String script, Object... args)
+		{
+			this.script = script;
+			this.args = args;
+			return this;
+		}
+
+		@Override
+		public Object apply(WebDriver driver)
+		{
+			resolutions.recordFind();
+			return ((JavascriptExecutor) driver).executeScript(script, args);
+		}
+	}
+
+	/**
+	 * Met by the element itself once it is displayed.
+	 */
+	public static final class Visible implements Function<WebDriver, WebElement>
+	{
+		private WebElement element;
+
+		public Visible target(WebElement element)
+		{
+			this.element = element;
+			return this;
+		}
+
+		@Override
+		public WebElement apply(WebDriver driver)
+		{
+			return element.isDisplayed() ? element : null;
+		}
+	}
+}
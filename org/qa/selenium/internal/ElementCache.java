@@ -0,0 +1,84 @@
+package org.qa.selenium.internal;
+
+import org.openqa.selenium.WebElement;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Keeps the {@link WebElement} each locator resolved to so repeated reads of the same locator do not
+ * pay for another find. The cache only ever holds elements from the window and frame the driver is
+ * currently looking at; the owner empties it on navigation, on every window or frame switch, and
+ * when a cached element turns out to be stale.
+ *
+ * Disabled by default. While disabled nothing is stored and lookups are not counted.
+ */
+public class ElementCache
+{
+	private final Map<Object, WebElement> elements = new HashMap<Object, WebElement>();
+
+	private boolean enabled;
+	private long hits;
+	private long misses;
+
+	public boolean isEnabled()
+	{
+		return enabled;
+	}
+
+	public void setEnabled(boolean enabled)
+	{
+		this.enabled = enabled;
+		if (!enabled) elements.clear();
+	}
+
+	/**
+	 * @param locator The locator the element was found with
+	 * @return The cached element or null on a miss
+	 */
+	public WebElement get(Object locator)
+	{
+		if (!enabled) return null;
+		WebElement element = elements.get(locator);
+		if (element == null) misses++;
+		else hits++;
+		return element;
+	}
+
+	public void put(Object locator, WebElement element)
+	{
+		if (enabled && element != null) elements.put(locator, element);
+	}
+
+	/**
+	 * Forgets the element of one locator, such as one found to be stale.
+	 */
+	public void remove(Object locator)
+	{
+		elements.remove(locator);
+	}
+
+	public void clear()
+	{
+		elements.clear();
+	}
+
+	public long getHits()
+	{
+		return hits;
+	}
+
+	public long getMisses()
+	{
+		return misses;
+	}
+
+	/**
+	 * @return The share of lookups answered from the cache, between 0 and 1
+	 */
+	public double getHitRate()
+	{
+		long lookups = hits + misses;
+		return (lookups == 0) ? 0 : (double) hits / lookups;
+	}
+}
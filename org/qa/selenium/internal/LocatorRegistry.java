@@ -0,0 +1,101 @@
+package org.qa.selenium.internal;
+
+import org.openqa.selenium.By;
+import org.qa.selenium.MalformedXmlElement;
+
+import javax.xml.xpath.XPath;
+import javax.xml.xpath.XPathExpressionException;
+import javax.xml.xpath.XPathFactory;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Shared, thread safe caches for the work a locator expression needs before it can be used: XPath
+ * validation and the Selenium {@link By} for each expression. Each distinct expression is validated
+ * once, and the same {@link By} instance is handed out every time it is asked for.
+ *
+ * Every cache stops growing at {@link #MAX_ENTRIES} so expressions built in a loop cannot exhaust
+ * memory; expressions past the limit still work, they are just not remembered.
+ */
+public final class LocatorRegistry
+{
+	public static final int MAX_ENTRIES = 4096;
+
+	private static final ConcurrentMap<String, Boolean> validXPaths = new ConcurrentHashMap<String, Boolean>();
+	private static final ConcurrentMap<String, By> xpaths = new ConcurrentHashMap<String, By>();
+	private static final ConcurrentMap<String, By> cssSelectors = new ConcurrentHashMap<String, By>();
+	private static final ConcurrentMap<String, By> ids = new ConcurrentHashMap<String, By>();
+	private static final ConcurrentMap<String, String> idSelectors = new ConcurrentHashMap<String, String>();
+
+	/** XPath compilers are not thread safe, and finding a factory is a service loader lookup, so keep one per thread */
+	private static final ThreadLocal<XPath> compiler = new ThreadLocal<XPath>()
+	{
+		@Override
+		protected XPath initialValue()
+		{
+			return XPathFactory.newInstance().newXPath();
+		}
+	};
+
+	private LocatorRegistry()
+	{
+	}
+
+	/**
+	 * Compiles the expression the first time it is seen, throwing if it is not a valid XPath.
+	 *
+	 * @param xpath The expression to check
+	 * @throws MalformedXmlElement if the expression does not compile
+	 */
+	public static void validateXPath(String xpath)
+	{
+		if (validXPaths.containsKey(xpath)) return;
+
+		try
+		{
+			compiler.get().compile(xpath);
+		}
+		catch (XPathExpressionException e)
+		{
+			throw new MalformedXmlElement("Invalid XPath: " + xpath);
+		}
+		remember(validXPaths, xpath, Boolean.TRUE);
+	}
+
+	public static By xpath(String xpath)
+	{
+		By by = xpaths.get(xpath);
+		return (by != null) ? by : remember(xpaths, xpath, By.xpath(xpath));
+	}
+
+	public static By css(String css)
+	{
+		By by = cssSelectors.get(css);
+		return (by != null) ? by : remember(cssSelectors, css, By.cssSelector(css));
+	}
+
+	public static By id(String id)
+	{
+		By by = ids.get(id);
+		return (by != null) ? by : remember(ids, id, By.id(id));
+	}
+
+	/**
+	 * @return The cached {@link PageScripts#idSelector(String)} for the id
+	 */
+	public static String idSelector(String id)
+	{
+		String selector = idSelectors.get(id);
+		return (selector != null) ? selector : remember(idSelectors, id, PageScripts.idSelector(id));
+	}
+
+	/**
+	 * Adds the value unless the cache is full, returning whichever value ended up cached for the key
+	 */
+	private static <V> V remember(ConcurrentMap<String, V> cache, String key, V value)
+	{
+		if (cache.size() >= MAX_ENTRIES) return value;
+		V existing = cache.putIfAbsent(key, value);
+		return (existing == null) ? value : existing;
+	}
+}
@@ -0,0 +1,445 @@
+package org.qa.selenium.internal;
+
+/**
+ * JavaScript sent through {@link org.openqa.selenium.JavascriptExecutor} so checks that would take
+ * several WebDriver round trips are done by the browser in a single call. Locators are passed to the
+ * scripts as a kind ({@link #XPATH}, {@link #CSS} or {@link #ELEMENTS}) and an expression, never
+ * pasted into the source.
+ */
+public final class PageScripts
+{
+	/** Locator kinds understood by the find function */
+	public static final String XPATH = "xpath";
+	public static final String CSS = "css";
+
+	/** The kind for locators that already hold their elements, passed in place of the expression */
+	public static final String ELEMENTS = "elements";
+
+	/**
+	 * Defines find(kind, expression) which returns an array of every element the locator matches, or
+	 * of the elements themselves for {@link #ELEMENTS}
+	 */
+	public static final String FIND =
+			"var find = function(kind, expression)" +
+			"{" +
+				"var found = [];" +
+				"if (kind === 'elements')" +
+				"{" +
+					"for (var k=0; k<expression.length; k++) found.push(expression[k]);" +
+				"}" +
+				"else if (kind === 'xpath')" +
+				"{" +
+					"var result = document.evaluate(expression, document, null, " +
+							"XPathResult.ORDERED_NODE_SNAPSHOT_TYPE, null);" +
+					"for (var i=0; i<result.snapshotLength; i++)" +
+					"{" +
+						"if (result.snapshotItem(i).nodeType === 1) found.push(result.snapshotItem(i));" +
+					"}" +
+				"}" +
+				"else" +
+				"{" +
+					"var nodes = document.querySelectorAll(expression);" +
+					"for (var j=0; j<nodes.length; j++) found.push(nodes[j]);" +
+				"}" +
+				"return found;" +
+			"};";
+
+	/** Defines displayed(element) which follows the same rules as WebElement.isDisplayed() for the common cases */
+	public static final String DISPLAYED =
+			"var displayed = function(element)" +
+			"{" +
+				"if (!element.getClientRects().length) return false;" +
+				"if (window.getComputedStyle(element).visibility !== 'visible') return false;" +
+				"for (var node = element; node && node.nodeType === 1; node = node.parentNode)" +
+				"{" +
+					"if (window.getComputedStyle(node).opacity === '0') return false;" +
+				"}" +
+				"return true;" +
+			"};";
+
+	/** Defines inView(element) which is true when the whole element is inside the viewport */
+	public static final String IN_VIEW =
+			"var inView = function(element)" +
+			"{" +
+				"var rect = element.getBoundingClientRect();" +
+				"var height = window.innerHeight || document.documentElement.clientHeight;" +
+				"var width = window.innerWidth || document.documentElement.clientWidth;" +
+				"return rect.top >= 0 && rect.left >= 0 && rect.bottom <= height && rect.right <= width;" +
+			"};";
+
+	/**
+	 * Takes a locator kind and expression and returns the first matching element that is displayed and
+	 * enabled, scrolled into the viewport so it is ready to click. Returns null if there is none yet.
+	 */
+	public static final String FIND_CLICKABLE = FIND + DISPLAYED + IN_VIEW +
+			"var found = find(arguments[0], arguments[1]);" +
+			"for (var i=0; i<found.length; i++)" +
+			"{" +
+				"if (displayed(found[i]) && !found[i].disabled)" +
+				"{" +
+					"if (!inView(found[i])) found[i].scrollIntoView({block: 'center'});" +
+					"return found[i];" +
+				"}" +
+			"}" +
+			"return null;";
+
+	/**
+	 * Takes a locator kind and expression and returns true once nothing at the locator is attached to
+	 * the page, false while anything is.
+	 */
+	public static final String ABSENT = FIND +
+			"var found = find(arguments[0], arguments[1]);" +
+			"for (var i=0; i<found.length; i++)" +
+			"{" +
+				"if (document.documentElement.contains(found[i])) return false;" +
+			"}" +
+			"return true;";
+
+	/**
+	 * Takes a locator kind and expression and returns true once nothing at the locator is displayed,
+	 * including when nothing is there at all, false while anything is.
+	 */
+	public static final String INVISIBLE = FIND + DISPLAYED +
+			"var found = find(arguments[0], arguments[1]);" +
+			"for (var i=0; i<found.length; i++)" +
+			"{" +
+				"if (document.documentElement.contains(found[i]) && displayed(found[i])) return false;" +
+			"}" +
+			"return true;";
+
+	/** Defines present(kind, expression) which is true while anything at the locator is attached to the page */
+	public static final String PRESENT = FIND +
+			"var present = function(kind, expression)" +
+			"{" +
+				"var found = find(kind, expression);" +
+				"for (var i=0; i<found.length; i++)" +
+				"{" +
+					"if (document.documentElement.contains(found[i])) return true;" +
+				"}" +
+				"return false;" +
+			"};";
+
+	/**
+	 * Takes a list of locator kinds and a parallel list of expressions and returns the index of the
+	 * first locator that finds anything, or null if none do yet.
+	 */
+	public static final String FIRST_PRESENT = PRESENT +
+			"for (var i=0; i<arguments[0].length; i++)" +
+			"{" +
+				"if (present(arguments[0][i], arguments[1][i])) return i;" +
+			"}" +
+			"return null;";
+
+	/**
+	 * Takes a list of locator kinds and a parallel list of expressions and returns true once every
+	 * locator finds something, false while any does not.
+	 */
+	public static final String ALL_PRESENT = PRESENT +
+			"for (var i=0; i<arguments[0].length; i++)" +
+			"{" +
+				"if (!present(arguments[0][i], arguments[1][i])) return false;" +
+			"}" +
+			"return true;";
+
+	/**
+	 * Takes parallel lists of locator kinds, expressions, absent flags and checks, where the checks for
+	 * each locator are a list of operations followed by their arguments. A locator is met when any
+	 * attached element it finds passes all of its checks, or when none does if its absent flag is set.
+	 * Returns true once every locator is met, false while any is not.
+	 */
+	public static final String CONDITION = FIND + DISPLAYED +
+			"var kinds = arguments[0], expressions = arguments[1], absent = arguments[2], checks = arguments[3];" +
+			"var text = function(element)" +
+			"{" +
+				"return (element.innerText || element.textContent || '').replace(/\\s+/g, ' ').replace(/^ | $/g, '');" +
+			"};" +
+			"var passes = function(element, check)" +
+			"{" +
+				"var a = check[1], b = check[2];" +
+				"switch (check[0])" +
+				"{" +
+					"case 'visible': return displayed(element);" +
+					"case 'hidden': return !displayed(element);" +
+					"case 'enabled': return !element.disabled;" +
+					"case 'disabled': return !!element.disabled;" +
+					"case 'selected': return !!(element.selected || element.checked);" +
+					"case 'textEquals': return text(element) === a;" +
+					"case 'textContains': return text(element).indexOf(a) >= 0;" +
+					"case 'attributeEquals': return element.getAttribute(a) === b;" +
+					"case 'attributeContains':" +
+						"var value = element.getAttribute(a);" +
+						"return value !== null && value.indexOf(b) >= 0;" +
+					"case 'valueEquals': return element.value === a;" +
+				"}" +
+				"throw new Error('Unknown check ' + check[0]);" +
+			"};" +
+			"for (var g=0; g<kinds.length; g++)" +
+			"{" +
+				"var found = find(kinds[g], expressions[g]), met = false;" +
+				"for (var i=0; i<found.length && !met; i++)" +
+				"{" +
+					"if (!document.documentElement.contains(found[i])) continue;" +
+					"met = true;" +
+					"for (var c=0; c<checks[g].length && met; c++) met = passes(found[i], checks[g][c]);" +
+				"}" +
+				"if (met === absent[g]) return false;" +
+			"}" +
+			"return true;";
+
+	/**
+	 * Takes a list of elements and a flag and returns the elements that are displayed, in their
+	 * original order. When the flag is true only the first displayed element is returned.
+	 */
+	public static final String FILTER_DISPLAYED = DISPLAYED +
+			"var candidates = arguments[0];" +
+			"var visible = [];" +
+			"for (var i=0; i<candidates.length; i++)" +
+			"{" +
+				"if (displayed(candidates[i]))" +
+				"{" +
+					"visible.push(candidates[i]);" +
+					"if (arguments[1]) break;" +
+				"}" +
+			"}" +
+			"return visible;";
+
+	/** Defines fire(element, type) which dispatches a bubbling HTML event the way user input would */
+	public static final String FIRE =
+			"var fire = function(element, type)" +
+			"{" +
+				"var event = document.createEvent('HTMLEvents');" +
+				"event.initEvent(type, true, false);" +
+				"element.dispatchEvent(event);" +
+			"};";
+
+	/**
+	 * Takes a select element and returns its selected index together with the visible text of that
+	 * option, or an index of -1 and null text when nothing is selected.
+	 */
+	public static final String SELECTED_OPTION =
+			"var select = arguments[0];" +
+			"var index = select.selectedIndex;" +
+			"return [index, (index < 0) ? null : select.options[index].text];";
+
+	/**
+	 * Defines selectText(select, text) which selects every option whose visible text, with its white
+	 * space normalized, equals the text. A single select stops at the first match. The input and change
+	 * events are fired when the selection changes. Returns false if no option matched.
+	 */
+	public static final String SELECT_TEXT = FIRE +
+			"var selectText = function(select, text)" +
+			"{" +
+				"var matched = false;" +
+				"var changed = false;" +
+				"for (var i=0; i<select.options.length; i++)" +
+				"{" +
+					"var option = select.options[i];" +
+					"if (option.text.replace(/\\s+/g, ' ').replace(/^ | $/g, '') === text)" +
+					"{" +
+						"matched = true;" +
+						"if (!option.selected)" +
+						"{" +
+							"option.selected = true;" +
+							"changed = true;" +
+						"}" +
+						"if (!select.multiple) break;" +
+					"}" +
+				"}" +
+				"if (changed)" +
+				"{" +
+					"fire(select, 'input');" +
+					"fire(select, 'change');" +
+				"}" +
+				"return matched;" +
+			"};";
+
+	/**
+	 * Takes a select element and some text and selects the options matching the text as selectText
+	 * does. Returns false if no option matched.
+	 */
+	public static final String SELECT_BY_TEXT = SELECT_TEXT +
+			"return selectText(arguments[0], arguments[1]);";
+
+	/**
+	 * Takes parallel lists of locator kinds, expressions, actions and values and performs the actions
+	 * in order, the way {@link org.qa.selenium.Commands} would natively:
+	 * <ul>
+	 *     <li>'type' sets the value of the first visible text field and fires input and change events
+	 *     before leaving it, as typing and tabbing out would</li>
+	 *     <li>'check' clicks the first element found if its checked state differs from the value</li>
+	 *     <li>'select' selects by visible text from the first visible select</li>
+	 * </ul>
+	 * Stops at the first action it cannot do in the page, such as one whose element is not there yet.
+	 * Returns how many actions were done together with why it stopped, or null for the reason when it
+	 * did them all.
+	 */
+	public static final String BATCH = FIND + DISPLAYED + SELECT_TEXT +
+			"var kinds = arguments[0], expressions = arguments[1], actions = arguments[2], values = arguments[3];" +
+			"var textTypes = {text: 1, search: 1, email: 1, url: 1, tel: 1, password: 1};" +
+			"var target = function(found, action, kind)" +
+			"{" +
+				//As natively, a lone text field is used even while hidden, then waited on by the native fallback
+				"if (action === 'check' || (action === 'select' && kind === 'elements')) return found[0];" +
+				"if (action === 'type' && found.length === 1) return found[0];" +
+				"for (var i=0; i<found.length; i++)" +
+				"{" +
+					"if (displayed(found[i])) return found[i];" +
+				"}" +
+				"return null;" +
+			"};" +
+			"var type = function(element, text)" +
+			"{" +
+				"if (!displayed(element)) return 'it is not visible';" +
+				"var tag = element.tagName.toLowerCase();" +
+				"if (tag !== 'textarea' && !(tag === 'input' && textTypes[(element.type || 'text').toLowerCase()]))" +
+					"return 'it is not a text field';" +
+				"if (element.disabled || element.readOnly) return 'it is not editable';" +
+				"if (element.maxLength >= 0 && text.length > element.maxLength) return 'the text is longer than its maxlength';" +
+				//Frameworks such as React track the value through the setter, so go through the nearest
+				//prototype's, which may be further up the chain than the element's own prototype
+				"var setter = null;" +
+				"for (var proto = Object.getPrototypeOf(element); proto && !setter; proto = Object.getPrototypeOf(proto))" +
+				"{" +
+					"var property = Object.getOwnPropertyDescriptor(proto, 'value');" +
+					"if (property && property.set) setter = property.set;" +
+				"}" +
+				"element.focus();" +
+				"if (setter) setter.call(element, text); else element.value = text;" +
+				"fire(element, 'input');" +
+				"fire(element, 'change');" +
+				"element.blur();" +
+				"return null;" +
+			"};" +
+			"var check = function(element, selected)" +
+			"{" +
+				"if (!!element.checked === selected) return null;" +
+				"if (!displayed(element) || element.disabled) return 'it is not clickable';" +
+				"element.click();" +
+				"return null;" +
+			"};" +
+			"var select = function(element, text)" +
+			"{" +
+				"if (element.tagName.toLowerCase() !== 'select') return 'it is not a select';" +
+				"return selectText(element, text) ? null : 'no option has the text';" +
+			"};" +
+			"for (var s=0; s<actions.length; s++)" +
+			"{" +
+				"var reason = null;" +
+				"try" +
+				"{" +
+					"var found = find(kinds[s], expressions[s]);" +
+					"var element = target(found, actions[s], kinds[s]);" +
+					"if (!element) reason = found.length ? 'it is not visible' : 'it was not found';" +
+					"else if (actions[s] === 'type') reason = type(element, values[s]);" +
+					"else if (actions[s] === 'check') reason = check(element, values[s]);" +
+					"else reason = select(element, values[s]);" +
+				"}" +
+				"catch (e)" +
+				"{" +
+					"reason = 'the page threw ' + e;" +
+				"}" +
+				"if (reason) return [s, reason];" +
+			"}" +
+			"return [actions.length, null];";
+
+	/**
+	 * Takes a select element and returns three parallel arrays: the value of every option, the visible
+	 * text of every option, and a flag per option where 1 marks it selected and 2 marks it disabled.
+	 */
+	public static final String OPTION_SNAPSHOT =
+			"var options = arguments[0].options;" +
+			"var values = [], texts = [], flags = [];" +
+			"for (var i=0; i<options.length; i++)" +
+			"{" +
+				"var option = options[i];" +
+				"var group = option.parentNode;" +
+				"var disabled = option.disabled || (group.nodeName.toUpperCase() === 'OPTGROUP' && group.disabled);" +
+				"values.push(option.value);" +
+				"texts.push(option.text);" +
+				"flags.push((option.selected ? 1 : 0) | (disabled ? 2 : 0));" +
+			"}" +
+			"return [values, texts, flags];";
+
+	/**
+	 * An asynchronous script taking a locator kind, an expression and a timeout in milliseconds. Calls
+	 * back with the first matching element as soon as it exists, watching the page with a
+	 * MutationObserver rather than polling. Calls back with null on timeout, or false if the browser
+	 * has no MutationObserver.
+	 */
+	public static final String WAIT_FOR_ELEMENT = FIND +
+			"var kind = arguments[0], expression = arguments[1], timeout = arguments[2];" +
+			"var done = arguments[arguments.length - 1];" +
+			"var first = function()" +
+			"{" +
+				"var found = find(kind, expression);" +
+				"return found.length ? found[0] : null;" +
+			"};" +
+			"var element = first();" +
+			"if (element) return done(element);" +
+			"var Observer = window.MutationObserver || window.WebKitMutationObserver;" +
+			"if (!Observer) return done(false);" +
+			"var observer, timer;" +
+			"var finish = function(result)" +
+			"{" +
+				"observer.disconnect();" +
+				"clearTimeout(timer);" +
+				"done(result);" +
+			"};" +
+			"observer = new Observer(function()" +
+			"{" +
+				"var element = first();" +
+				"if (element) finish(element);" +
+			"});" +
+			"observer.observe(document.documentElement, {childList: true, subtree: true, attributes: true});" +
+			"timer = setTimeout(function() { finish(null); }, timeout);";
+
+	private PageScripts()
+	{
+	}
+
+	/**
+	 * Builds a CSS selector matching every element with the given id. Unlike '#id' this is valid for
+	 * any id value, including ones starting with a digit or containing punctuation.
+	 *
+	 * @param id The id attribute to match
+	 * @return A CSS attribute selector for the id
+	 */
+	public static String idSelector(String id)
+	{
+		return attributeSelector("id", id);
+	}
+
+	/**
+	 * Builds a CSS selector matching every element whose attribute has exactly the given value.
+	 *
+	 * @param attribute The attribute name, which must be a plain CSS identifier
+	 * @param value The value to match, quoted and escaped as needed
+	 * @return A CSS attribute selector
+	 */
+	public static String attributeSelector(String attribute, String value)
+	{
+		return "[" + attribute + "=\"" + value.replace("\\", "\\\\").replace("\"", "\\\"") + "\"]";
+	}
+
+	/**
+	 * Quotes text for use as an XPath 1.0 string literal. XPath has no escape character, so text
+	 * containing both kinds of quote is built with concat().
+	 *
+	 * @param text The text to quote
+	 * @return An XPath expression evaluating to the text
+	 */
+	public static String xpathLiteral(String text)
+	{
+		if (text.indexOf('\'') < 0) return "'" + text + "'";
+		if (text.indexOf('"') < 0) return "\"" + text + "\"";
+
+		StringBuilder literal = new StringBuilder("concat(");
+		String[] parts = text.split("'", -1);
+		for (int i=0; i < parts.length; i++)
+		{
+			if (i > 0) literal.append(", \"'\", ");
+			literal.append('\'').append(parts[i]).append('\'');
+		}
+		return literal.append(')').toString();
+	}
+}
@@ -0,0 +1,94 @@
+package org.qa.selenium.internal;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A timed pause that parks the calling thread until its deadline instead of spinning on the clock.
+ * The deadline is kept in nanoseconds from {@link System#nanoTime()} so the pause is unaffected by
+ * wall clock changes. A pause ends early when the waiting thread is interrupted or when any other
+ * thread calls {@link #cancel()}.
+ */
+public class Pause
+{
+	/** The {@link System#nanoTime()} value at which the pause is complete */
+	private final long deadline;
+
+	/** The thread currently parked on this pause, if any */
+	private volatile Thread waiter;
+
+	private volatile boolean cancelled;
+
+	public Pause(long time, TimeUnit unit)
+	{
+		if (unit == null) throw new NullPointerException("TimeUnit must not be Null");
+		this.deadline = System.nanoTime() + unit.toNanos(time);
+	}
+
+	/**
+	 * Parks the current thread until the deadline passes or the pause is cancelled. Spurious wake ups
+	 * simply park again for whatever time is left.
+	 *
+	 * @return true if the full time elapsed, false if the pause was cancelled
+	 * @throws InterruptedException if the waiting thread is interrupted
+	 */
+	public boolean await() throws InterruptedException
+	{
+		waiter = Thread.currentThread();
+		try
+		{
+			long remaining;
+			while (!cancelled && (remaining = deadline - System.nanoTime()) > 0)
+			{
+				LockSupport.parkNanos(this, remaining);
+				if (Thread.interrupted()) throw new InterruptedException("Pause interrupted");
+			}
+			return !cancelled;
+		}
+		finally
+		{
+			waiter = null;
+		}
+	}
+
+	/**
+	 * Parks the current thread for the time given without creating a {@link Pause}, for callers that
+	 * sleep often and never need to cancel.
+	 *
+	 * @throws InterruptedException if the waiting thread is interrupted
+	 */
+	public static void park(long time, TimeUnit unit) throws InterruptedException
+	{
+		long deadline = System.nanoTime() + unit.toNanos(time);
+		long remaining;
+		while ((remaining = deadline - System.nanoTime()) > 0)
+		{
+			LockSupport.parkNanos(remaining);
+			if (Thread.interrupted()) throw new InterruptedException("Pause interrupted");
+		}
+	}
+
+	/**
+	 * Ends the pause early. Safe to call from any thread and more than once.
+	 */
+	public void cancel()
+	{
+		cancelled = true;
+		Thread parked = waiter;
+		if (parked != null) LockSupport.unpark(parked);
+	}
+
+	public boolean isCancelled()
+	{
+		return cancelled;
+	}
+
+	/**
+	 * @param unit The unit to return the remaining time in
+	 * @return The time left before the deadline, never negative
+	 */
+	public long remaining(TimeUnit unit)
+	{
+		return unit.convert(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+	}
+}
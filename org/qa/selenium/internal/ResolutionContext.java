@@ -0,0 +1,130 @@
+package org.qa.selenium.internal;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebElement;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Remembers which elements a locator resolved to for the length of one command, so a command that
+ * needs the same element more than once only asks the driver for it once. Also counts how many
+ * remote finds each command makes.
+ *
+ * The memo is cleared when the next command begins and whenever the driver changes the frame or
+ * window it is looking at, since the same locator may match something else there.
+ */
+public class ResolutionContext
+{
+	private final Map<By, WebElement> elements = new HashMap<By, WebElement>();
+	private final Map<By, List<WebElement>> elementLists = new HashMap<By, List<WebElement>>();
+
+	/** Per command name: index 0 holds how many times it ran, index 1 how many remote finds it made */
+	private final Map<String, long[]> counts = new HashMap<String, long[]>();
+
+	private String command;
+	private long commandFinds;
+
+	/**
+	 * Starts a new command, forgetting everything resolved by the previous one.
+	 *
+	 * @param command The name the finds of this command are counted under
+	 */
+	public void begin(String command)
+	{
+		clear();
+		this.command = command;
+		commandFinds = 0;
+		countsFor(command)[0]++;
+	}
+
+	/**
+	 * Forgets everything resolved so far in the current command.
+	 */
+	public void clear()
+	{
+		elements.clear();
+		elementLists.clear();
+	}
+
+	/**
+	 * @return The element the locator resolved to earlier in this command, or null if it has not been
+	 * resolved. A non empty list resolved by the same locator counts, since its first entry is what
+	 * a single find returns.
+	 */
+	public WebElement getElement(By by)
+	{
+		WebElement element = elements.get(by);
+		if (element == null)
+		{
+			List<WebElement> list = elementLists.get(by);
+			if (list != null && !list.isEmpty()) element = list.get(0);
+		}
+		return element;
+	}
+
+	/**
+	 * @return The elements the locator resolved to earlier in this command, or null if it has not been resolved
+	 */
+	public List<WebElement> getElements(By by)
+	{
+		return elementLists.get(by);
+	}
+
+	public void putElement(By by, WebElement element)
+	{
+		elements.put(by, element);
+	}
+
+	public void putElements(By by, List<WebElement> list)
+	{
+		elementLists.put(by, list);
+	}
+
+	/**
+	 * Records one remote find made by the current command.
+	 */
+	public void recordFind()
+	{
+		commandFinds++;
+		if (command != null) countsFor(command)[1]++;
+	}
+
+	/**
+	 * @return How many remote finds the current, or most recent, command has made
+	 */
+	public long getCurrentFindCount()
+	{
+		return commandFinds;
+	}
+
+	/**
+	 * @return How many remote finds every run of the named command made in total
+	 */
+	public long getFindCount(String command)
+	{
+		long[] count = counts.get(command);
+		return (count == null) ? 0 : count[1];
+	}
+
+	/**
+	 * @return How many times the named command has run
+	 */
+	public long getInvocationCount(String command)
+	{
+		long[] count = counts.get(command);
+		return (count == null) ? 0 : count[0];
+	}
+
+	private long[] countsFor(String command)
+	{
+		long[] count = counts.get(command);
+		if (count == null)
+		{
+			count = new long[2];
+			counts.put(command, count);
+		}
+		return count;
+	}
+}
@@ -0,0 +1,84 @@
+package org.qa.selenium.internal;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Runs tasks one at a time, in the order they were given, on a shared {@link Executor}. Many serial
+ * executors can share one small pool: each hands the pool a single task at a time and queues the rest
+ * itself, so a busy session cannot hold a pool thread while others wait. Consecutive tasks may run on
+ * different threads but never overlap, and each task sees everything the one before it wrote.
+ */
+public final class SerialExecutor implements Executor
+{
+	private final Executor delegate;
+	private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<Runnable>();
+
+	/** True while a task of ours is running or handed to the delegate */
+	private final AtomicBoolean scheduled = new AtomicBoolean();
+
+	private final Runnable next = new Runnable()
+	{
+		@Override
+		public void run()
+		{
+			try
+			{
+				Runnable task = tasks.poll();
+				if (task != null) task.run();
+			}
+			finally
+			{
+				scheduled.set(false);
+				if (!tasks.isEmpty()) schedule();
+			}
+		}
+	};
+
+	public SerialExecutor(Executor delegate)
+	{
+		if (delegate == null) throw new NullPointerException("Executor must not be Null");
+		this.delegate = delegate;
+	}
+
+	@Override
+	public void execute(Runnable task)
+	{
+		if (task == null) throw new NullPointerException("Task must not be Null");
+		tasks.add(task);
+		try
+		{
+			schedule();
+		}
+		catch (RejectedExecutionException e)
+		{
+			tasks.remove(task);
+			throw e;
+		}
+	}
+
+	/**
+	 * @return How many tasks are waiting to run
+	 */
+	public int getQueueDepth()
+	{
+		return tasks.size();
+	}
+
+	private void schedule()
+	{
+		if (!scheduled.compareAndSet(false, true)) return;
+		try
+		{
+			delegate.execute(next);
+		}
+		catch (RejectedExecutionException e)
+		{
+			scheduled.set(false);
+			throw e;
+		}
+	}
+}
@@ -0,0 +1,60 @@
+package org.qa.selenium.internal;
+
+import org.qa.selenium.ConcurrentSessionException;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Confines a session to one thread at a time. A thread owns the session from the moment a command
+ * enters until that command exits, and another thread entering meanwhile fails at once rather than
+ * interleaving its commands with the owner's. Between commands the session may move freely from one
+ * thread to another, as it does on an executor; claiming and releasing ownership through an atomic
+ * reference also makes everything one command wrote visible to the next, whichever thread runs it.
+ *
+ * A command may call other commands on the same session; the owner simply enters again.
+ */
+public final class SessionGuard
+{
+	private final AtomicReference<Thread> owner = new AtomicReference<Thread>();
+
+	/** How many commands the owner has entered and not yet left. Only touched by the owner */
+	private int depth;
+
+	/**
+	 * @param command Describes the command entering, for the failure message
+	 * @throws ConcurrentSessionException if another thread is running a command on the session
+	 */
+	public void enter(Object command)
+	{
+		Thread current = Thread.currentThread();
+		if (owner.get() == current)
+		{
+			depth++;
+			return;
+		}
+		if (!owner.compareAndSet(null, current))
+		{
+			Thread running = owner.get();
+			throw new ConcurrentSessionException("Session is in use by thread '" +
+					((running == null) ? "unknown" : running.getName()) + "', so thread '" + current.getName() +
+					"' cannot run " + command + ". Each session must only run one command at a time");
+		}
+		depth = 1;
+	}
+
+	/**
+	 * Leaves the command entered last, releasing the session once the outermost command leaves.
+	 */
+	public void exit()
+	{
+		if (--depth == 0) owner.set(null);
+	}
+
+	/**
+	 * @return The thread running a command on the session, or null if it is idle
+	 */
+	public Thread getOwner()
+	{
+		return owner.get();
+	}
+}
@@ -0,0 +1,260 @@
+package org.qa.selenium.internal;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Rewrites simple XPath expressions as CSS selectors, which browsers match far faster. Only a small,
+ * safe subset of XPath is understood:
+ *
+ * <pre>
+ *   //tag and //*           descendant steps, written as a space
+ *   /tag                    child steps, written as ' &gt; '
+ *   [@attr]                 [attr]
+ *   [@attr='value']         [attr="value"]
+ *   [contains(@attr,'v')]   [attr*="v"]
+ *   [starts-with(@attr,'v')] [attr^="v"]
+ *   [a and b], [a][b]       both conditions
+ * </pre>
+ *
+ * Anything else, including positions, text(), axes, unions, upper case names and the values of
+ * attributes such as type that CSS compares case insensitively, is left as XPath.
+ * An expression that is nothing but //*[@id='value'] is rewritten as an id lookup.
+ */
+public final class XPathRewriter
+{
+	/**
+	 * Attributes whose values HTML matches case insensitively in CSS selectors but XPath matches
+	 * exactly, so comparing their values is left as XPath
+	 */
+	private static final Set<String> caseInsensitiveValues = new HashSet<String>(Arrays.asList(
+			"accept", "accept-charset", "align", "alink", "axis", "bgcolor", "charset", "checked",
+			"clear", "codetype", "color", "compact", "declare", "defer", "dir", "direction", "disabled",
+			"enctype", "face", "frame", "hreflang", "http-equiv", "lang", "language", "link", "media",
+			"method", "multiple", "nohref", "noresize", "noshade", "nowrap", "readonly", "rel", "rev",
+			"rules", "scope", "scrolling", "selected", "shape", "target", "text", "type", "valign",
+			"valuetype", "vlink"));
+
+	private final String xpath;
+	private final StringBuilder css = new StringBuilder();
+	private int position;
+
+	/** Set while the expression could still be a plain id lookup */
+	private String id;
+	private int conditions;
+
+	private XPathRewriter(String xpath)
+	{
+		this.xpath = xpath;
+	}
+
+	/**
+	 * @param xpath The expression to rewrite
+	 * @return The equivalent CSS selector or id, or null if the expression cannot be safely rewritten
+	 */
+	public static Rewrite rewrite(String xpath)
+	{
+		if (xpath == null || !xpath.startsWith("//")) return null;
+		XPathRewriter rewriter = new XPathRewriter(xpath);
+		return rewriter.parse() ? rewriter.result() : null;
+	}
+
+	private Rewrite result()
+	{
+		if (id != null && conditions == 1) return new Rewrite(true, id);
+		return new Rewrite(false, css.toString());
+	}
+
+	private boolean parse()
+	{
+		int steps = 0;
+		while (position < xpath.length())
+		{
+			if (xpath.startsWith("//", position))
+			{
+				position += 2;
+				if (steps > 0) css.append(' ');
+			}
+			else if (xpath.charAt(position) == '/')
+			{
+				position++;
+				if (steps > 0) css.append(" > ");
+			}
+			else return false;
+
+			String tag = nameTest();
+			if (tag == null) return false;
+			css.append(tag);
+
+			while (position < xpath.length() && xpath.charAt(position) == '[')
+			{
+				position++;
+				if (!predicate(steps == 0 && tag.equals("*"))) return false;
+			}
+			steps++;
+		}
+		if (steps != 1) id = null;
+		return steps > 0;
+	}
+
+	private String nameTest()
+	{
+		if (position < xpath.length() && xpath.charAt(position) == '*')
+		{
+			position++;
+			return "*";
+		}
+		String name = name();
+		if (name == null) return null;
+		//Anything other than another step or a predicate, such as text() or an axis, is not supported
+		if (position < xpath.length() && "/[".indexOf(xpath.charAt(position)) < 0) return null;
+		return name;
+	}
+
+	/**
+	 * Reads one bracketed predicate, the opening bracket already consumed
+	 */
+	private boolean predicate(boolean mayBeId)
+	{
+		while (true)
+		{
+			skipSpace();
+			if (!condition(mayBeId)) return false;
+			skipSpace();
+			if (consume("]")) return true;
+			if (!consume("and") || !isSpace(position)) return false;
+		}
+	}
+
+	private boolean condition(boolean mayBeId)
+	{
+		conditions++;
+		if (consume("@"))
+		{
+			String attribute = name();
+			if (attribute == null) return false;
+			skipSpace();
+			if (!consume("="))
+			{
+				css.append('[').append(attribute).append(']');
+				return true;
+			}
+			skipSpace();
+			String value = literal();
+			if (value == null || caseInsensitiveValues.contains(attribute)) return false;
+			if (mayBeId && attribute.equals("id")) id = value;
+			css.append(PageScripts.attributeSelector(attribute, value));
+			return true;
+		}
+
+		String operator;
+		if (consume("contains(")) operator = "*=";
+		else if (consume("starts-with(")) operator = "^=";
+		else return false;
+
+		skipSpace();
+		if (!consume("@")) return false;
+		String attribute = name();
+		if (attribute == null || caseInsensitiveValues.contains(attribute)) return false;
+		skipSpace();
+		if (!consume(",")) return false;
+		skipSpace();
+		String value = literal();
+		skipSpace();
+		//XPath treats an empty substring as always matching, CSS as never matching
+		if (value == null || value.isEmpty() || !consume(")")) return false;
+
+		String selector = PageScripts.attributeSelector(attribute, value);
+		css.append('[').append(attribute).append(operator).append(selector.substring(attribute.length() + 2));
+		return true;
+	}
+
+	/**
+	 * Reads a lower case HTML name. Upper case names are left alone since XPath and CSS disagree on
+	 * how to match them in HTML documents.
+	 */
+	private String name()
+	{
+		int start = position;
+		if (position >= xpath.length() || !isLowerLetter(xpath.charAt(position))) return null;
+		while (position < xpath.length())
+		{
+			char c = xpath.charAt(position);
+			if (!isLowerLetter(c) && !(c >= '0' && c <= '9') && c != '-' && c != '_') break;
+			position++;
+		}
+		return xpath.substring(start, position);
+	}
+
+	private String literal()
+	{
+		if (position >= xpath.length()) return null;
+		char quote = xpath.charAt(position);
+		if (quote != '\'' && quote != '"') return null;
+
+		int end = xpath.indexOf(quote, position + 1);
+		if (end < 0) return null;
+		String value = xpath.substring(position + 1, end);
+		for (int i=0; i < value.length(); i++)
+		{
+			//CSS strings cannot hold raw control characters
+			if (value.charAt(i) < ' ') return null;
+		}
+		position = end + 1;
+		return value;
+	}
+
+	private boolean consume(String token)
+	{
+		if (!xpath.startsWith(token, position)) return false;
+		position += token.length();
+		return true;
+	}
+
+	private void skipSpace()
+	{
+		while (isSpace(position)) position++;
+	}
+
+	private boolean isSpace(int index)
+	{
+		return index < xpath.length() && Character.isWhitespace(xpath.charAt(index));
+	}
+
+	private static boolean isLowerLetter(char c)
+	{
+		return c >= 'a' && c <= 'z';
+	}
+
+	/**
+	 * A rewritten expression, either a CSS selector or an id
+	 */
+	public static final class Rewrite
+	{
+		private final boolean id;
+		private final String expression;
+
+		private Rewrite(boolean id, String expression)
+		{
+			this.id = id;
+			this.expression = expression;
+		}
+
+		public boolean isId()
+		{
+			return id;
+		}
+
+		public String getExpression()
+		{
+			return expression;
+		}
+
+		@Override
+		public String toString()
+		{
+			return (id ? "ID: " : "Css: ") + expression;
+		}
+	}
+}